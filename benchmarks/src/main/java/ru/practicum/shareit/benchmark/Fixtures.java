@@ -0,0 +1,88 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+@UtilityClass
+public class Fixtures {
+    private static final int POPULATE_CHUNK_SIZE = 500;
+    private static final int COMMENTS_PER_ITEM = 3;
+
+    public static User user(long number) {
+        return new User(null, "User" + number, "user" + number + "@yandex.ru", null);
+    }
+
+    public static Item item(long number, User owner) {
+        return new Item(null, "Item" + number, "DescriptionItem" + number, true, owner, null, null);
+    }
+
+    public static List<Booking> bookings(Item item, User booker, int count) {
+        LocalDateTime today = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+        List<Booking> bookings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = today.plusDays(2L * (i - count / 2));
+            bookings.add(new Booking(null, start, start.plusDays(1), item, booker, BookingStatus.APPROVED, null));
+        }
+        return bookings;
+    }
+
+    public static List<Comment> comments(Item item, User author, int count) {
+        LocalDateTime today = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+        List<Comment> comments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            comments.add(new Comment(null, "Comment" + i, item, author, today.minusDays(i)));
+        }
+        return comments;
+    }
+
+    /**
+     * Saves items of one owner, each with bookings and comments of a second user, and returns the owner.
+     */
+    public static User populate(ApplicationContext context, int items, int bookingsPerItem) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+        CommentRepository commentRepository = context.getBean(CommentRepository.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        User owner = userRepository.save(user(1));
+        User booker = userRepository.save(user(2));
+
+        for (int from = 0; from < items; from += POPULATE_CHUNK_SIZE) {
+            int chunkStart = from;
+            int chunkEnd = Math.min(items, from + POPULATE_CHUNK_SIZE);
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Item> chunk = new ArrayList<>(chunkEnd - chunkStart);
+                for (int number = chunkStart; number < chunkEnd; number++) {
+                    chunk.add(item(number, owner));
+                }
+                List<Item> saved = itemRepository.saveAll(chunk);
+
+                List<Booking> savedBookings = new ArrayList<>();
+                List<Comment> savedComments = new ArrayList<>();
+                for (Item item : saved) {
+                    savedBookings.addAll(bookings(item, booker, bookingsPerItem));
+                    savedComments.addAll(comments(item, booker, COMMENTS_PER_ITEM));
+                }
+                bookingRepository.saveAll(savedBookings);
+                commentRepository.saveAll(savedComments);
+            });
+        }
+        return owner;
+    }
+}
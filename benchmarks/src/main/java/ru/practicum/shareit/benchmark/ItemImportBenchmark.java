@@ -0,0 +1,106 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportRecordDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares bulk item import with ids from the pooled items sequence against the IDENTITY ids items had before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemImportBenchmark {
+    private static final String IDENTITY_MAPPING = "META-INF/identity-item-orm.xml";
+
+    public enum IdGeneration {
+        SEQUENCE,
+        IDENTITY
+    }
+
+    @Param({"SEQUENCE", "IDENTITY"})
+    private IdGeneration idGeneration;
+
+    @Param({"500"})
+    private int importSize;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private ItemService itemService;
+    private Long importerId;
+    private List<ItemImportRecordDto> importRecords;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:import-benchmark",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.ru.practicum.shareit=warn",
+                "--logging.level.org.springframework.transaction.interceptor=warn",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=warn"));
+        if (idGeneration == IdGeneration.IDENTITY) {
+            args.add("--spring.jpa.mapping-resources=" + IDENTITY_MAPPING);
+        }
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("ci")
+                .run(args.toArray(String[]::new));
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        if (idGeneration == IdGeneration.IDENTITY) {
+            jdbcTemplate.execute("ALTER TABLE items ALTER COLUMN item_id SET DEFAULT NEXT VALUE FOR items_seq");
+        }
+        itemService = context.getBean(ItemService.class);
+        importerId = context.getBean(UserRepository.class).save(Fixtures.user(1)).getId();
+
+        importRecords = new ArrayList<>(importSize);
+        for (int line = 1; line <= importSize; line++) {
+            importRecords.add(new ItemImportRecordDto(line,
+                    new ItemDto(null, "Imported" + line, "DescriptionImported" + line, true, null), null));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteImportedItems() {
+        jdbcTemplate.update("DELETE FROM items");
+        context.getBean(EntityManagerFactory.class).getCache().evict(Item.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ItemImportResultDto importItems() {
+        return itemService.importItems(importerId, importRecords.iterator());
+    }
+}
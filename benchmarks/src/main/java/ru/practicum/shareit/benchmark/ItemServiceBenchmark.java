@@ -0,0 +1,81 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemServiceBenchmark {
+    @Param({"1000", "10000"})
+    private int items;
+
+    @Param({"10"})
+    private int bookingsPerItem;
+
+    @Param({"20"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private Long ownerId;
+    private int page;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("ci")
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.ru.practicum.shareit=warn",
+                        "--logging.level.org.springframework.transaction.interceptor=warn",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=warn");
+        itemService = context.getBean(ItemService.class);
+        ownerId = Fixtures.populate(context, items, bookingsPerItem).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Collection<ItemDtoWithBookings> getAllByUserId() {
+        return itemService.getAllByUserId(ownerId, nextPage() * pageSize, pageSize);
+    }
+
+    @Benchmark
+    public Collection<ItemDto> search() {
+        return itemService.search("item", nextPage() * pageSize, pageSize);
+    }
+
+    private int nextPage() {
+        page = (page + 1) % Math.max(1, items / pageSize);
+        return page;
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingOutgoingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummaryBooking;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+    private static final int COMMENTS_PER_ITEM = 3;
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<BookingOutgoingDto> bookings;
+    private List<ItemDtoWithBookings> items;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        User owner = Fixtures.user(1);
+        owner.setId(1L);
+        User booker = Fixtures.user(2);
+        booker.setId(2L);
+        bookings = new ArrayList<>(size);
+        items = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            Item item = Fixtures.item(id, owner);
+            item.setId(id);
+            List<Booking> itemBookings = Fixtures.bookings(item, booker, 2);
+            Booking last = itemBookings.get(0);
+            Booking next = itemBookings.get(1);
+            last.setId(2 * id - 1);
+            next.setId(2 * id);
+            bookings.add(BookingMapper.mapToBookingOutgoingDto(last));
+
+            List<CommentDto> comments = new ArrayList<>(CommentMapper.mapToCommentDto(
+                    Fixtures.comments(item, booker, COMMENTS_PER_ITEM)));
+            items.add(ItemMapper.mapToItemDtoForOwner(
+                    item,
+                    BookingMapper.mapToBookingDtoForOwner(
+                            new ItemSummaryBooking(last.getId(), booker.getId(), last.getStart())),
+                    BookingMapper.mapToBookingDtoForOwner(
+                            new ItemSummaryBooking(next.getId(), booker.getId(), next.getStart())),
+                    comments));
+        }
+    }
+
+    @Benchmark
+    public byte[] writeBookings() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] writeItemsForOwner() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(items);
+    }
+}
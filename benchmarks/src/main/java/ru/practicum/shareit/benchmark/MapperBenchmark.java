@@ -0,0 +1,90 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDtoForOwner;
+import ru.practicum.shareit.booking.dto.BookingOutgoingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummaryBooking;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private Item item;
+    private BookingDtoForOwner lastBooking;
+    private BookingDtoForOwner nextBooking;
+    private List<CommentDto> commentDtos;
+    private List<Booking> bookings;
+    private List<Comment> comments;
+
+    @Setup
+    public void setup() {
+        User owner = Fixtures.user(1);
+        owner.setId(1L);
+        User booker = Fixtures.user(2);
+        booker.setId(2L);
+        item = Fixtures.item(1, owner);
+        item.setId(1L);
+
+        bookings = new ArrayList<>(Fixtures.bookings(item, booker, size));
+        for (int i = 0; i < bookings.size(); i++) {
+            bookings.get(i).setId((long) i + 1);
+        }
+        comments = new ArrayList<>(Fixtures.comments(item, booker, size));
+        for (int i = 0; i < comments.size(); i++) {
+            comments.get(i).setId((long) i + 1);
+        }
+
+        Booking first = bookings.get(0);
+        Booking last = bookings.get(bookings.size() - 1);
+        lastBooking = BookingMapper.mapToBookingDtoForOwner(
+                new ItemSummaryBooking(first.getId(), booker.getId(), first.getStart()));
+        nextBooking = BookingMapper.mapToBookingDtoForOwner(
+                new ItemSummaryBooking(last.getId(), booker.getId(), last.getStart()));
+        commentDtos = new ArrayList<>(CommentMapper.mapToCommentDto(comments));
+    }
+
+    @Benchmark
+    public ItemDtoWithBookings mapItemForOwner() {
+        return ItemMapper.mapToItemDtoForOwner(item, lastBooking, nextBooking, commentDtos);
+    }
+
+    @Benchmark
+    public List<BookingOutgoingDto> mapBookings() {
+        return BookingMapper.mapToBookingOutgoingDto(bookings);
+    }
+
+    @Benchmark
+    public Collection<CommentDto> mapComments() {
+        return CommentMapper.mapToCommentDto(comments);
+    }
+}
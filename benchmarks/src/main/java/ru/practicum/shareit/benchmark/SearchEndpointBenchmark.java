@@ -0,0 +1,89 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@code GET /items/search} over HTTP with the default logging setup and with the prod profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class SearchEndpointBenchmark {
+    private static final String REQUEST_HEADER = "X-Sharer-User-Id";
+
+    @Param({"default", "prod"})
+    private String logging;
+
+    @Param({"1000"})
+    private int items;
+
+    @Param({"20"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String searchUrl;
+    private String userId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        String[] profiles = "prod".equals(logging) ? new String[]{"ci", "prod"} : new String[]{"ci"};
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .profiles(profiles)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:search-benchmark");
+        userId = String.valueOf(Fixtures.populate(context, items, 2).getId());
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        searchUrl = "http://localhost:" + port + "/items/search?text=item&size=" + pageSize + "&from=";
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int search() throws IOException, InterruptedException {
+        int from = ThreadLocalRandom.current().nextInt(Math.max(1, items / pageSize)) * pageSize;
+        HttpRequest request = HttpRequest.newBuilder(URI.create(searchUrl + from))
+                .header(REQUEST_HEADER, userId)
+                .GET()
+                .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Search failed with status " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
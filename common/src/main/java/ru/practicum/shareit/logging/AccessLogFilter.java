@@ -0,0 +1,69 @@
+package ru.practicum.shareit.logging;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs method, URI, status and duration of a random sample of requests to the {@code shareit.access} logger.
+ */
+@Slf4j(topic = "shareit.access")
+public class AccessLogFilter extends OncePerRequestFilter {
+    private final double sampleRate;
+
+    public AccessLogFilter(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long started = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        logRequest(request, response, started);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                logRequest(request, response, started);
+            }
+        }
+    }
+
+    private static void logRequest(HttpServletRequest request, HttpServletResponse response, long started) {
+        log.info("{} {}{} {} {} ms", request.getMethod(), request.getRequestURI(),
+                request.getQueryString() != null ? "?" + request.getQueryString() : "",
+                response.getStatus(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends finished spans to a file, one Zipkin v2 JSON span per line.
+ */
+@Slf4j
+public class FileSpanHandler extends SpanHandler implements Closeable {
+    private final BufferedWriter writer;
+
+    public FileSpanHandler(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (cause == Cause.ABANDONED) {
+            return true;
+        }
+        try {
+            writer.write(span.toString());
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            log.warn("Span {} was not written: {}", context.spanIdString(), e.getMessage());
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
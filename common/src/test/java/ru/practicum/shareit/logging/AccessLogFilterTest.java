@@ -0,0 +1,38 @@
+package ru.practicum.shareit.logging;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+
+@ExtendWith(OutputCaptureExtension.class)
+class AccessLogFilterTest {
+
+    @Test
+    void logSampledRequest(CapturedOutput output) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/search");
+        request.setQueryString("text=drill");
+
+        new AccessLogFilter(1.0).doFilter(request, new MockHttpServletResponse(),
+                (servletRequest, servletResponse) -> ((MockHttpServletResponse) servletResponse).setStatus(200));
+
+        assertThat(output.getOut(), containsString("GET /items/search?text=drill 200"));
+    }
+
+    @Test
+    void skipRequestOutsideSample(CapturedOutput output) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/search");
+
+        new AccessLogFilter(0.0).doFilter(request, new MockHttpServletResponse(),
+                (servletRequest, servletResponse) -> {
+                });
+
+        assertThat(output.getOut(), not(containsString("GET /items/search")));
+    }
+}
@@ -1,16 +1,19 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingIncomingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerCallTracing;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -18,28 +21,46 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                         ResponseCache responseCache, MeterRegistry meterRegistry,
+                         ServerCallTracing serverCallTracing) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build(), responseCache, meterRegistry, serverCallTracing, API_PREFIX);
     }
 
-    public ResponseEntity<Object> add(Long userId, BookingIncomingDto bookingIncomingDto) {
+    public Mono<ResponseEntity<byte[]>> add(Long userId, BookingIncomingDto bookingIncomingDto) {
         return post("", userId, bookingIncomingDto);
     }
 
-    public ResponseEntity<Object> approve(Long userId, Long bookingId, Boolean approved) {
+    public Mono<ResponseEntity<byte[]>> addAll(Long userId, List<BookingIncomingDto> bookings) {
+        return post("/batch", userId, bookings);
+    }
+
+    public Mono<ResponseEntity<byte[]>> approveAll(Long userId, List<Long> bookingIds, Boolean approved) {
+        Map<String, Object> parameters = Map.of(
+                "approved", approved
+        );
+        return invalidating(patch("/approve-batch?approved={approved}", userId, parameters, bookingIds),
+                response -> invalidateItemsOfOwner(userId));
+    }
+
+    public Mono<ResponseEntity<byte[]>> approve(Long userId, Long bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
-        return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
+        return invalidating(patch("/" + bookingId + "?approved={approved}", userId, parameters, null),
+                response -> invalidateItemsOfOwner(userId));
     }
 
-    public ResponseEntity<Object> getAllByBookerId(
-            Long userId, BookingRequestState state, Integer from, Integer size) {
+    public Mono<ResponseEntity<byte[]>> getAllByBookerId(
+            Long userId, BookingRequestState state, Integer from, Integer size, String cursor) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of(
+                    "state", state.name(),
+                    "cursor", cursor,
+                    "size", size
+            );
+            return get("?state={state}&cursor={cursor}&size={size}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -48,8 +69,16 @@ public class BookingClient extends BaseClient {
         return get("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllByItemsOfUser(
-            Long userId, BookingRequestState state, Integer from, Integer size) {
+    public Mono<ResponseEntity<byte[]>> getAllByItemsOfUser(
+            Long userId, BookingRequestState state, Integer from, Integer size, String cursor) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of(
+                    "state", state.name(),
+                    "cursor", cursor,
+                    "size", size
+            );
+            return get("/owner?state={state}&cursor={cursor}&size={size}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -58,7 +87,15 @@ public class BookingClient extends BaseClient {
         return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getById(Long userId, Long bookingId) {
+    public Mono<ResponseEntity<byte[]>> getById(Long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
+
+    /**
+     * Only approved bookings appear in item views, and only in the views of the item owner, who approves them.
+     * Adding a booking leaves every item view as it was.
+     */
+    private void invalidateItemsOfOwner(Long ownerId) {
+        responseCache.invalidateUser("/items", ownerId);
+    }
 }
@@ -6,11 +6,15 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingIncomingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestState;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -19,39 +23,57 @@ import javax.validation.constraints.Min;
 @Validated
 public class BookingController {
     private static final String REQUEST_HEADER = "X-Sharer-User-Id";
+    private static final int BATCH_SIZE = 100;
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> add(@RequestHeader(REQUEST_HEADER) Long userId,
+    public Mono<ResponseEntity<byte[]>> add(@RequestHeader(REQUEST_HEADER) Long userId,
                                       @Valid @RequestBody BookingIncomingDto bookingIncomingDto) {
         return bookingClient.add(userId, bookingIncomingDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<byte[]>> addAll(@RequestHeader(REQUEST_HEADER) Long userId,
+                                         @RequestBody @Size(min = 1, max = BATCH_SIZE)
+                                         List<@Valid BookingIncomingDto> bookings) {
+        return bookingClient.addAll(userId, bookings);
+    }
+
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approve(@RequestHeader(REQUEST_HEADER) Long userId,
+    public Mono<ResponseEntity<byte[]>> approve(@RequestHeader(REQUEST_HEADER) Long userId,
                                           @RequestParam("approved") Boolean approved,
                                           @PathVariable("bookingId") Long bookingId) {
         return bookingClient.approve(userId, bookingId, approved);
     }
 
+    @PatchMapping("/approve-batch")
+    public Mono<ResponseEntity<byte[]>> approveAll(@RequestHeader(REQUEST_HEADER) Long userId,
+                                             @RequestParam("approved") Boolean approved,
+                                             @RequestBody @Size(min = 1, max = BATCH_SIZE)
+                                             List<@NotNull Long> bookingIds) {
+        return bookingClient.approveAll(userId, bookingIds, approved);
+    }
+
     @GetMapping
-    public ResponseEntity<Object> getAllByBookerId(@RequestHeader(REQUEST_HEADER) Long userId,
+    public Mono<ResponseEntity<byte[]>> getAllByBookerId(@RequestHeader(REQUEST_HEADER) Long userId,
                                                    @RequestParam(name = "state", defaultValue = "ALL") BookingRequestState state,
                                                    @RequestParam(value = "from", required = false, defaultValue = "0") @Min(0) Integer from,
-                                                   @RequestParam(value = "size", required = false, defaultValue = "10") @Min(1) Integer size) {
-        return bookingClient.getAllByBookerId(userId, state, from, size);
+                                                   @RequestParam(value = "size", required = false, defaultValue = "10") @Min(1) Integer size,
+                                                   @RequestParam(value = "cursor", required = false) String cursor) {
+        return bookingClient.getAllByBookerId(userId, state, from, size, cursor);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllByItemsOfUser(@RequestHeader(REQUEST_HEADER) Long userId,
+    public Mono<ResponseEntity<byte[]>> getAllByItemsOfUser(@RequestHeader(REQUEST_HEADER) Long userId,
                                                       @RequestParam(value = "state", defaultValue = "ALL") BookingRequestState state,
                                                       @RequestParam(value = "from", required = false, defaultValue = "0") @Min(0) Integer from,
-                                                      @RequestParam(value = "size", required = false, defaultValue = "10") @Min(1) Integer size) {
-        return bookingClient.getAllByItemsOfUser(userId, state, from, size);
+                                                      @RequestParam(value = "size", required = false, defaultValue = "10") @Min(1) Integer size,
+                                                      @RequestParam(value = "cursor", required = false) String cursor) {
+        return bookingClient.getAllByItemsOfUser(userId, state, from, size, cursor);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getById(@RequestHeader(REQUEST_HEADER) Long userId,
+    public Mono<ResponseEntity<byte[]>> getById(@RequestHeader(REQUEST_HEADER) Long userId,
                                           @PathVariable Long bookingId) {
         return bookingClient.getById(userId, bookingId);
     }
@@ -1,117 +1,235 @@
 package ru.practicum.shareit.client;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public class BaseClient {
-    protected final RestTemplate rest;
+    private static final List<String> HOP_BY_HOP_HEADERS = List.of(
+            HttpHeaders.CONNECTION,
+            HttpHeaders.TRANSFER_ENCODING,
+            "Keep-Alive");
+    private static final String REQUESTS_METRIC = "shareit.client.requests";
+
+    protected final WebClient webClient;
+    protected final ResponseCache responseCache;
+    private final MeterRegistry meterRegistry;
+    private final ServerCallTracing serverCallTracing;
+    private final String resource;
+
+    public BaseClient(WebClient webClient, ResponseCache responseCache, MeterRegistry meterRegistry,
+                      ServerCallTracing serverCallTracing, String resource) {
+        this.webClient = webClient;
+        this.responseCache = responseCache;
+        this.meterRegistry = meterRegistry;
+        this.serverCallTracing = serverCallTracing;
+        this.resource = resource;
+    }
+
+    private static ResponseEntity<byte[]> prepareGatewayResponse(ResponseEntity<byte[]> response) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(response.getHeaders());
+        HOP_BY_HOP_HEADERS.forEach(headers::remove);
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(headers)
+                .body(response.getBody());
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
-        }
+    protected Mono<ResponseEntity<byte[]>> get(String path) {
+        return get(path, null, null);
+    }
 
-        return responseBuilder.build();
+    protected Mono<ResponseEntity<byte[]>> get(String path, long userId) {
+        return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path) {
-        return get(path, null, null);
+    protected Mono<ResponseEntity<byte[]>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, currentIfNoneMatch());
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
-        return get(path, userId, null);
+    protected Mono<ResponseEntity<byte[]>> cachedGet(String path, Long userId) {
+        return cachedGet(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected Mono<ResponseEntity<byte[]>> cachedGet(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        String expandedPath = UriComponentsBuilder.fromUriString(path)
+                .buildAndExpand(parameters != null ? parameters : Map.of())
+                .toUriString();
+        String ifNoneMatch = currentIfNoneMatch();
+        return responseCache.get(resource, userId, expandedPath,
+                        () -> makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, null))
+                .map(response -> notModifiedIfMatches(response, ifNoneMatch));
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<byte[]>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<byte[]>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<byte[]>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body, null);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected Mono<ResponseEntity<byte[]>> postStream(String path, long userId, MediaType contentType,
+                                                      Publisher<DataBuffer> body) {
+        Span span = serverCallTracing.start(getClass().getSimpleName(), HttpMethod.POST);
+        WebClient.RequestHeadersSpec<?> request = webClient.post()
+                .uri(path)
+                .headers(headers -> {
+                    defaultHeaders(headers, userId, span);
+                    headers.setContentType(contentType);
+                })
+                .body(BodyInserters.fromDataBuffers(body));
+
+        return exchange(HttpMethod.POST, request, span);
+    }
+
+    protected <T> Mono<ResponseEntity<byte[]>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<byte[]>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<byte[]>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<byte[]>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<byte[]>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<byte[]>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body, null);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<byte[]>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<byte[]>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    protected Mono<ResponseEntity<byte[]>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, null);
+    }
+
+    private <T> Mono<ResponseEntity<byte[]>> makeAndSendRequest(HttpMethod method, String path, Long userId,
+                                                               @Nullable Map<String, Object> parameters,
+                                                               @Nullable T body, @Nullable String ifNoneMatch) {
+        Span span = serverCallTracing.start(getClass().getSimpleName(), method);
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> {
+                    defaultHeaders(headers, userId, span);
+                    if (ifNoneMatch != null) {
+                        headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+                    }
+                });
+
+        WebClient.RequestHeadersSpec<?> shareitServerRequest = body != null ? request.bodyValue(body) : request;
+
+        return exchange(method, shareitServerRequest, span);
+    }
+
+    private Mono<ResponseEntity<byte[]>> exchange(HttpMethod method, WebClient.RequestHeadersSpec<?> shareitServerRequest,
+                                                  Span span) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return shareitServerRequest.exchangeToMono(response -> response.toEntity(byte[].class))
+                    .map(BaseClient::prepareGatewayResponse)
+                    .doOnSuccess(response -> finish(sample, span, method,
+                            response != null ? String.valueOf(response.getStatusCodeValue()) : "NONE"))
+                    .doOnError(e -> {
+                        span.error(e);
+                        finish(sample, span, method, "IO_ERROR");
+                    })
+                    .doOnCancel(span::end);
+        });
+    }
+
+    /**
+     * Runs the invalidation once shareit-server has accepted the change, so a rejected one keeps cached responses.
+     */
+    protected static Mono<ResponseEntity<byte[]>> invalidating(Mono<ResponseEntity<byte[]>> response,
+                                                               Consumer<ResponseEntity<byte[]>> invalidation) {
+        return response.doOnNext(accepted -> {
+            if (accepted.getStatusCode().is2xxSuccessful()) {
+                invalidation.accept(accepted);
+            }
+        });
+    }
+
+    private void finish(Timer.Sample sample, Span span, HttpMethod method, String status) {
+        span.tag("http.status_code", status).end();
+        sample.stop(Timer.builder(REQUESTS_METRIC)
+                .description("Time spent waiting for shareit-server")
+                .tag("client", getClass().getSimpleName())
+                .tag("method", method.name())
+                .tag("status", status)
+                .register(meterRegistry));
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private static ResponseEntity<byte[]> notModifiedIfMatches(ResponseEntity<byte[]> response,
+                                                               @Nullable String ifNoneMatch) {
+        String etag = response.getHeaders().getETag();
+        if (ifNoneMatch == null || etag == null || !response.getStatusCode().is2xxSuccessful()) {
+            return response;
+        }
 
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+        String tag = stripWeakPrefix(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || stripWeakPrefix(trimmed).equals(tag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
             }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return response;
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
-        HttpHeaders headers = new HttpHeaders();
+    private static String stripWeakPrefix(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    @Nullable
+    private static String currentIfNoneMatch() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes) {
+            return ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes())
+                    .getRequest().getHeader(HttpHeaders.IF_NONE_MATCH);
+        }
+        return null;
+    }
+
+    private void defaultHeaders(HttpHeaders headers, Long userId, Span span) {
+        serverCallTracing.inject(span, headers);
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
-        return headers;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "shareit-server.http-client")
+@Getter
+@Setter
+public class HttpClientProperties {
+    private int maxConnections = 500;
+    private int maxPendingAcquires = 1000;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(10);
+    private Duration keepAlive = Duration.ofSeconds(30);
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches successful GET responses of shareit-server per resource, user and path.
+ *
+ * <p>A cached response belongs to three scopes: its resource, the first segment of its path within the resource
+ * (the id in {@code /items/{id}}, or {@code /search}) and the user it was served to. Every scope has a generation
+ * that is part of the key, so invalidating a scope moves it to a new generation and lookups stop matching keys
+ * of the old one. Entries of older generations are never read again and leave the cache through TTL or size
+ * eviction. Generations are kept for two TTLs after their last use, so they outlive every entry written under them,
+ * including a response that was still loading when its scope was invalidated.
+ */
+@Component
+@Slf4j
+public class ResponseCache {
+    private final Cache<String, ResponseEntity<byte[]>> cache;
+    private final Cache<String, AtomicLong> generations;
+
+    public ResponseCache(@Value("${shareit-gateway.cache.ttl:30s}") Duration ttl,
+                         @Value("${shareit-gateway.cache.max-size:10000}") long maxSize,
+                         MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        this.generations = Caffeine.newBuilder()
+                .expireAfterAccess(ttl.multipliedBy(2))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.responses");
+    }
+
+    public Mono<ResponseEntity<byte[]>> get(String resource, Long userId, String path,
+                                            Supplier<Mono<ResponseEntity<byte[]>>> loader) {
+        String key = resource + "|" + generationOf(resource).get()
+                + "|" + generationOf(pathScope(resource, scopeOf(path))).get()
+                + "|" + generationOf(userScope(resource, userId)).get()
+                + "|" + userId + "|" + path;
+        ResponseEntity<byte[]> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+
+        return loader.get().doOnNext(response -> {
+            if (response.getStatusCode().is2xxSuccessful()) {
+                cache.put(key, response);
+            }
+        });
+    }
+
+    /**
+     * Invalidates every cached response of the resource.
+     */
+    public void invalidate(String resource) {
+        generationOf(resource).incrementAndGet();
+        log.debug("Cached responses of {} have been invalidated.", resource);
+    }
+
+    /**
+     * Invalidates the cached responses of the resource whose path starts with the given segment, for every user.
+     */
+    public void invalidate(String resource, String path) {
+        generationOf(pathScope(resource, scopeOf(path))).incrementAndGet();
+        log.debug("Cached responses of {}{} have been invalidated.", resource, path);
+    }
+
+    /**
+     * Invalidates the cached responses of the resource served to the user.
+     */
+    public void invalidateUser(String resource, Long userId) {
+        generationOf(userScope(resource, userId)).incrementAndGet();
+        log.debug("Cached responses of {} for user {} have been invalidated.", resource, userId);
+    }
+
+    private AtomicLong generationOf(String scope) {
+        return generations.get(scope, s -> new AtomicLong());
+    }
+
+    private static String pathScope(String resource, String segment) {
+        return resource + segment;
+    }
+
+    private static String userScope(String resource, Long userId) {
+        return resource + "|user=" + userId;
+    }
+
+    private static String scopeOf(String path) {
+        int end = path.length();
+        for (int i = 1; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '/' || c == '?') {
+                end = i;
+                break;
+            }
+        }
+        return path.substring(0, end);
+    }
+}
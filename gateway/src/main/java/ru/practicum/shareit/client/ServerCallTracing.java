@@ -0,0 +1,37 @@
+package ru.practicum.shareit.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.propagation.Propagator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ServerCallTracing {
+    private static final String REMOTE_SERVICE = "shareit-server";
+
+    private final Tracer tracer;
+    private final Propagator propagator;
+
+    public Span start(String client, HttpMethod method) {
+        Span.Builder builder = tracer.spanBuilder();
+        Span parent = tracer.currentSpan();
+        if (parent != null) {
+            builder.setParent(parent.context());
+        }
+        return builder
+                .name(client + " " + method.name())
+                .kind(Span.Kind.CLIENT)
+                .remoteServiceName(REMOTE_SERVICE)
+                .tag("client", client)
+                .tag("http.method", method.name())
+                .start();
+    }
+
+    public void inject(Span span, HttpHeaders headers) {
+        propagator.inject(span.context(), headers, HttpHeaders::set);
+    }
+}
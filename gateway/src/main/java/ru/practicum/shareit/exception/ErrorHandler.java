@@ -2,11 +2,15 @@ package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import javax.validation.ConstraintViolationException;
 
@@ -36,6 +40,25 @@ public class ErrorHandler {
         return new ErrorResponse(String.format("Unknown %s: %s", e.getName(), e.getValue()));
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    public ErrorResponse handleWebClientRequestException(final WebClientRequestException e) {
+        log.error(e.getMessage());
+
+        return new ErrorResponse("ShareIt server is not reachable: " + e.getMostSpecificCause().getMessage());
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<byte[]> handleWebClientResponseException(final WebClientResponseException e) {
+        log.error(e.getMessage());
+
+        return ResponseEntity.status(e.getRawStatusCode())
+                .contentType(e.getHeaders().getContentType() != null
+                        ? e.getHeaders().getContentType()
+                        : MediaType.APPLICATION_JSON)
+                .body(e.getResponseBodyAsByteArray());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleThrowable(final Throwable e) {
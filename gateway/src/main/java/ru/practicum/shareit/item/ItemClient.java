@@ -1,45 +1,84 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerCallTracing;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
+    private static final String SEARCH_PATH = "/search";
+    private static final String REQUESTS = "/requests";
+
+    private final ObjectMapper objectMapper;
+
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                      ResponseCache responseCache, MeterRegistry meterRegistry,
+                      ServerCallTracing serverCallTracing, ObjectMapper objectMapper) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build(), responseCache, meterRegistry, serverCallTracing, API_PREFIX);
+        this.objectMapper = objectMapper;
     }
 
-    public ResponseEntity<Object> add(Long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+    public Mono<ResponseEntity<byte[]>> add(Long userId, ItemDto itemDto) {
+        return invalidating(post("", userId, itemDto), response -> {
+            responseCache.invalidate(API_PREFIX, SEARCH_PATH);
+            invalidateRequest(itemDto.getRequestId());
+        });
     }
 
-    public ResponseEntity<Object> update(Long userId, Long itemId, ItemDto itemDto) {
-        return patch("/" + itemId, userId, itemDto);
+    public Mono<ResponseEntity<byte[]>> importItems(Long userId, Flux<DataBuffer> records) {
+        return invalidating(postStream("/import", userId, MediaType.APPLICATION_NDJSON, records), response -> {
+            responseCache.invalidate(API_PREFIX, SEARCH_PATH);
+            // imported lines may answer any request
+            responseCache.invalidate(REQUESTS);
+        });
     }
 
-    public ResponseEntity<Object> delete(Long itemId) {
-        return delete("/" + itemId);
+    public Mono<ResponseEntity<byte[]>> update(Long userId, Long itemId, ItemDto itemDto) {
+        return invalidating(patch("/" + itemId, userId, itemDto), response -> {
+            responseCache.invalidate(API_PREFIX, "/" + itemId);
+            responseCache.invalidate(API_PREFIX, SEARCH_PATH);
+            invalidateRequest(requestIdOf(response));
+        });
     }
 
-    public ResponseEntity<Object> getAllByUserId(Long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<byte[]>> delete(Long itemId) {
+        return invalidating(delete("/" + itemId), response -> {
+            responseCache.invalidate(API_PREFIX, "/" + itemId);
+            responseCache.invalidate(API_PREFIX, SEARCH_PATH);
+            // the deleted item may have answered any request
+            responseCache.invalidate(REQUESTS);
+        });
+    }
+
+    public Mono<ResponseEntity<byte[]>> getAllByUserId(Long userId, Integer from, Integer size, String cursor) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of(
+                    "cursor", cursor,
+                    "size", size
+            );
+            return get("?cursor={cursor}&size={size}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -47,20 +86,55 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getById(Long userId, Long itemId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<byte[]>> getById(Long userId, Long itemId) {
+        return cachedGet("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> search(Long userId, String text, Integer from, Integer size) {
+    public Mono<ResponseEntity<byte[]>> search(Long userId, String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return cachedGet(SEARCH_PATH + "?text={text}&from={from}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<byte[]>> addComment(Long userId, Long itemId, CommentDto commentDto) {
+        return invalidating(post("/" + itemId + "/comment", userId, commentDto),
+                response -> responseCache.invalidate(API_PREFIX, "/" + itemId));
+    }
+
+    public Mono<ResponseEntity<byte[]>> getAvailability(Long userId, Long itemId, String from, String to) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder path = new StringBuilder("/" + itemId + "/availability?");
+        if (from != null) {
+            parameters.put("from", from);
+            path.append("from={from}&");
+        }
+        if (to != null) {
+            parameters.put("to", to);
+            path.append("to={to}");
+        }
+        return get(path.toString(), userId, parameters);
+    }
+
+    private void invalidateRequest(Long requestId) {
+        if (requestId != null) {
+            responseCache.invalidate(REQUESTS, "/" + requestId);
+        }
     }
 
-    public ResponseEntity<Object> addComment(Long userId, Long itemId, CommentDto commentDto) {
-        return post("/" + itemId + "/comment", userId, commentDto);
+    /**
+     * Reads the request the updated item answers from the server response. An unreadable body falls back to
+     * invalidating every request.
+     */
+    private Long requestIdOf(ResponseEntity<byte[]> response) {
+        try {
+            JsonNode requestId = objectMapper.readTree(response.getBody()).path("requestId");
+            return requestId.isIntegralNumber() ? requestId.asLong() : null;
+        } catch (IOException | IllegalArgumentException e) {
+            responseCache.invalidate(REQUESTS);
+            return null;
+        }
     }
 }
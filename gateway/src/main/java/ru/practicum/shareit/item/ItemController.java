@@ -2,15 +2,21 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/items")
@@ -21,60 +27,82 @@ public class ItemController {
     private static final String REQUEST_HEADER = "X-Sharer-User-Id";
 
     private final ItemClient itemClient;
+    private final ItemImportParser itemImportParser;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     @Validated
-    public ResponseEntity<Object> add(@RequestHeader(REQUEST_HEADER) Long userId,
+    public Mono<ResponseEntity<byte[]>> add(@RequestHeader(REQUEST_HEADER) Long userId,
                                       @Valid @RequestBody ItemDto itemDto) {
 
-        log.info("POST/addItem");
+        log.debug("POST/addItem");
         return itemClient.add(userId, itemDto);
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, ItemImportParser.TEXT_CSV})
+    public Mono<ResponseEntity<byte[]>> importItems(@RequestHeader(REQUEST_HEADER) Long userId,
+                                                    @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                    InputStream body) {
+        log.debug("POST/import-Items");
+        return itemClient.importItems(userId, itemImportParser.parse(body, MediaType.parseMediaType(contentType)));
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> update(@PathVariable Long itemId,
+    public Mono<ResponseEntity<byte[]>> update(@PathVariable Long itemId,
                                          @RequestHeader(REQUEST_HEADER) Long userId,
                                          @RequestBody ItemDto itemDto) {
-        log.info("PATCH/updateItem");
+        log.debug("PATCH/updateItem");
         return itemClient.update(userId, itemId, itemDto);
     }
 
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void delete(@PathVariable long itemId, @RequestHeader(REQUEST_HEADER) Long userId) {
-        log.info("DELETE/requestId");
-        itemClient.delete(itemId);
+    public Mono<Void> delete(@PathVariable long itemId, @RequestHeader(REQUEST_HEADER) Long userId) {
+        log.debug("DELETE/requestId");
+        return itemClient.delete(itemId).then();
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllByUserId(@RequestHeader(REQUEST_HEADER) Long userId,
+    public Mono<ResponseEntity<byte[]>> getAllByUserId(@RequestHeader(REQUEST_HEADER) Long userId,
                                                  @RequestParam(required = false, defaultValue = "0") @Min(0) int from,
-                                                 @RequestParam(required = false, defaultValue = "10") @Min(1) int size) {
-        log.info("GET/get-All-Items-By-UserId");
-        return itemClient.getAllByUserId(userId, from, size);
+                                                 @RequestParam(required = false, defaultValue = "10") @Min(1) int size,
+                                                 @RequestParam(required = false) String cursor) {
+        log.debug("GET/get-All-Items-By-UserId");
+        return itemClient.getAllByUserId(userId, from, size, cursor);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getById(@PathVariable Long itemId, @RequestHeader(REQUEST_HEADER) Long userId) {
-        log.info("GET/get-Item-By-Id");
+    public Mono<ResponseEntity<byte[]>> getById(@PathVariable Long itemId, @RequestHeader(REQUEST_HEADER) Long userId) {
+        log.debug("GET/get-Item-By-Id");
         return itemClient.getById(userId, itemId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> search(@RequestHeader(REQUEST_HEADER) Long userId,
+    public Mono<ResponseEntity<byte[]>> search(@RequestHeader(REQUEST_HEADER) Long userId,
                                          String text,
                                          @RequestParam(required = false, defaultValue = "0") @Min(0) int from,
                                          @RequestParam(required = false, defaultValue = "10") @Min(1) int size) {
-        log.info("GET/searchItem");
+        log.debug("GET/searchItem");
         return itemClient.search(userId, text, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@PathVariable Long itemId,
+    public Mono<ResponseEntity<byte[]>> addComment(@PathVariable Long itemId,
                                              @RequestHeader(REQUEST_HEADER) Long userId,
                                              @Valid @RequestBody CommentDto commentDto) {
-        log.info("POST/addComment");
+        log.debug("POST/addComment");
         return itemClient.addComment(userId, itemId, commentDto);
     }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<byte[]>> getAvailability(
+            @PathVariable Long itemId,
+            @RequestHeader(REQUEST_HEADER) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.debug("GET/get-Item-Availability");
+        return itemClient.getAvailability(userId, itemId,
+                from == null ? null : from.toString(),
+                to == null ? null : to.toString());
+    }
 }
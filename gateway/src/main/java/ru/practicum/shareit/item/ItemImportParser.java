@@ -0,0 +1,199 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportRecordDto;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class ItemImportParser {
+    public static final String TEXT_CSV = "text/csv";
+
+    private static final DataBufferFactory BUFFER_FACTORY = new DefaultDataBufferFactory();
+    private static final ObjectReader CSV_READER = CsvMapper.builder()
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build()
+            .readerFor(ItemDto.class)
+            .with(CsvSchema.emptySchema().withHeader());
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    public Flux<DataBuffer> parse(InputStream body, MediaType contentType) {
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        boolean csv = MediaType.valueOf(TEXT_CSV).isCompatibleWith(contentType);
+
+        return Flux.<DataBuffer, RecordReader>generate(
+                        () -> csv
+                                ? new CsvRecordReader(new InputStreamReader(body, charset))
+                                : new JsonLinesRecordReader(new BufferedReader(new InputStreamReader(body, charset))),
+                        (reader, sink) -> {
+                            try {
+                                ItemImportRecordDto record = reader.next();
+                                if (record == null) {
+                                    sink.complete();
+                                } else {
+                                    sink.next(toBuffer(record));
+                                }
+                            } catch (IOException e) {
+                                sink.error(new UncheckedIOException(e));
+                            }
+                            return reader;
+                        },
+                        RecordReader::close)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private ItemImportRecordDto toRecord(long line, ItemDto item) {
+        if (item == null) {
+            return new ItemImportRecordDto(line, null, "Empty record.");
+        }
+
+        Set<ConstraintViolation<ItemDto>> violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+            String error = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            return new ItemImportRecordDto(line, null, error);
+        }
+        return new ItemImportRecordDto(line, item, null);
+    }
+
+    private DataBuffer toBuffer(ItemImportRecordDto record) throws JsonProcessingException {
+        return BUFFER_FACTORY.wrap((objectMapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ItemImportRecordDto malformed(long line, JsonProcessingException e) {
+        return new ItemImportRecordDto(line, null, "Malformed record: " + e.getOriginalMessage());
+    }
+
+    private interface RecordReader {
+        ItemImportRecordDto next() throws IOException;
+
+        void close();
+    }
+
+    /**
+     * One JSON object per line, so the line number of a record is the line it was read from.
+     */
+    private class JsonLinesRecordReader implements RecordReader {
+        private final BufferedReader reader;
+        private final ObjectReader itemReader = objectMapper.readerFor(ItemDto.class);
+        private long line;
+
+        JsonLinesRecordReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ItemImportRecordDto next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+                if (text == null) {
+                    return null;
+                }
+            } while (text.isBlank());
+
+            try {
+                return toRecord(line, itemReader.readValue(text));
+            } catch (JsonProcessingException e) {
+                return malformed(line, e);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                reader.close();
+            } catch (IOException ignored) {
+                // the request body is released by the servlet container anyway
+            }
+        }
+    }
+
+    /**
+     * CSV with a header row, read by the CSV parser itself so quoted values may span several lines.
+     * A record is reported at the line it starts on; after a bad value the iterator skips to the next record.
+     */
+    private class CsvRecordReader implements RecordReader {
+        private final Reader reader;
+        private MappingIterator<ItemDto> items;
+        private boolean finished;
+
+        CsvRecordReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ItemImportRecordDto next() throws IOException {
+            if (finished) {
+                return null;
+            }
+            if (items == null) {
+                items = CSV_READER.readValues(reader);
+            }
+            long line = items.getCurrentLocation().getLineNr();
+            try {
+                if (!items.hasNextValue()) {
+                    return null;
+                }
+            } catch (JsonProcessingException e) {
+                finished = true;
+                return malformed(line, e);
+            }
+
+            line = items.getCurrentLocation().getLineNr();
+            try {
+                return toRecord(line, items.nextValue());
+            } catch (JsonProcessingException e) {
+                return malformed(line, e);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (items != null) {
+                    items.close();
+                }
+                reader.close();
+            } catch (IOException ignored) {
+                // the request body is released by the servlet container anyway
+            }
+        }
+    }
+}
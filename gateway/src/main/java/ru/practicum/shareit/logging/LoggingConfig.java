@@ -0,0 +1,18 @@
+package ru.practicum.shareit.logging;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class LoggingConfig {
+
+    @Bean
+    @ConditionalOnProperty("shareit.access-log.sample-rate")
+    public FilterRegistrationBean<AccessLogFilter> accessLogFilter(
+            @Value("${shareit.access-log.sample-rate}") double sampleRate) {
+        return new FilterRegistrationBean<>(new AccessLogFilter(sampleRate));
+    }
+}
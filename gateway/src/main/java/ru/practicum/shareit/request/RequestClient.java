@@ -1,13 +1,15 @@
 package ru.practicum.shareit.request;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerCallTracing;
 import ru.practicum.shareit.request.dto.RequestDto;
 
 import java.util.Map;
@@ -17,28 +19,36 @@ public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public RequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                         ResponseCache responseCache, MeterRegistry meterRegistry,
+                         ServerCallTracing serverCallTracing) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build(), responseCache, meterRegistry, serverCallTracing, API_PREFIX);
     }
 
-    public ResponseEntity<Object> add(RequestDto requestDto, Long userId) {
+    public Mono<ResponseEntity<byte[]>> add(RequestDto requestDto, Long userId) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> delete(Long requestId) {
-        return delete("/" + requestId);
+    public Mono<ResponseEntity<byte[]>> delete(Long requestId) {
+        return invalidating(delete("/" + requestId), response -> {
+            responseCache.invalidate(API_PREFIX, "/" + requestId);
+            // items answering the request are deleted with it
+            responseCache.invalidate("/items");
+        });
     }
 
-    public ResponseEntity<Object> getRequestsOfUser(Long userId) {
+    public Mono<ResponseEntity<byte[]>> getRequestsOfUser(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAll(Long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<byte[]>> getAll(Long userId, Integer from, Integer size, String cursor) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of(
+                    "cursor", cursor,
+                    "size", size
+            );
+            return get("/all?cursor={cursor}&size={size}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -46,8 +56,8 @@ public class RequestClient extends BaseClient {
         return get("/all?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getById(Long userId, Long requestId) {
-        return get("/" + requestId, userId);
+    public Mono<ResponseEntity<byte[]>> getById(Long userId, Long requestId) {
+        return cachedGet("/" + requestId, userId);
     }
 
 
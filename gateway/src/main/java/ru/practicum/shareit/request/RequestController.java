@@ -7,6 +7,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.RequestDto;
 
 import javax.validation.Valid;
@@ -23,36 +24,37 @@ public class RequestController {
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> add(@RequestHeader(REQUEST_HEADER) Long userId,
+    public Mono<ResponseEntity<byte[]>> add(@RequestHeader(REQUEST_HEADER) Long userId,
                                       @Valid @RequestBody RequestDto requestDto) {
-        log.info("POST/addRequest");
+        log.debug("POST/addRequest");
         return requestClient.add(requestDto, userId);
     }
 
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void delete(@PathVariable long requestId, @RequestHeader(REQUEST_HEADER) Long userId) {
-        log.info("DELETE/requestId");
-        requestClient.delete(requestId);
+    public Mono<Void> delete(@PathVariable long requestId, @RequestHeader(REQUEST_HEADER) Long userId) {
+        log.debug("DELETE/requestId");
+        return requestClient.delete(requestId).then();
     }
 
     @GetMapping
-    public ResponseEntity<Object> getRequestsOfUser(@RequestHeader(REQUEST_HEADER) Long userId) {
-        log.info("GET/getRequestsOfUser");
+    public Mono<ResponseEntity<byte[]>> getRequestsOfUser(@RequestHeader(REQUEST_HEADER) Long userId) {
+        log.debug("GET/getRequestsOfUser");
         return requestClient.getRequestsOfUser(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAll(@RequestHeader(REQUEST_HEADER) Long userId,
+    public Mono<ResponseEntity<byte[]>> getAll(@RequestHeader(REQUEST_HEADER) Long userId,
                                          @RequestParam(value = "from", required = false, defaultValue = "0") @Min(0) int from,
-                                         @RequestParam(value = "size", required = false, defaultValue = "10") @Min(1) int size) {
-        log.info("GET/get-All-Requests");
-        return requestClient.getAll(userId, from, size);
+                                         @RequestParam(value = "size", required = false, defaultValue = "10") @Min(1) int size,
+                                         @RequestParam(value = "cursor", required = false) String cursor) {
+        log.debug("GET/get-All-Requests");
+        return requestClient.getAll(userId, from, size, cursor);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getById(@RequestHeader(REQUEST_HEADER) Long userId, @PathVariable Long requestId) {
-        log.info("GET/get-Request-By-Id");
+    public Mono<ResponseEntity<byte[]>> getById(@RequestHeader(REQUEST_HEADER) Long userId, @PathVariable Long requestId) {
+        log.debug("GET/get-Request-By-Id");
         return requestClient.getById(userId, requestId);
     }
 }
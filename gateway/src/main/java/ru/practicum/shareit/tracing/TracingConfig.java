@@ -0,0 +1,19 @@
+package ru.practicum.shareit.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+public class TracingConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty("shareit.tracing.file")
+    public FileSpanHandler fileSpanHandler(@Value("${shareit.tracing.file}") Path file) throws IOException {
+        return new FileSpanHandler(file);
+    }
+}
@@ -1,44 +1,90 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerCallTracing;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.OutputStream;
+import java.util.Map;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new).build()
-        );
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                      ResponseCache responseCache, MeterRegistry meterRegistry,
+                      ServerCallTracing serverCallTracing) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build(), responseCache, meterRegistry, serverCallTracing, API_PREFIX);
     }
 
-    public ResponseEntity<Object> add(UserDto userDto) {
+    public Mono<ResponseEntity<byte[]>> add(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> update(Long userId, UserDto userDto) {
-        return patch("/" + userId, userDto);
+    public Mono<ResponseEntity<byte[]>> update(Long userId, UserDto userDto) {
+        return invalidating(patch("/" + userId, userDto), response -> {
+            responseCache.invalidate(API_PREFIX, "/" + userId);
+            if (userDto.getName() != null) {
+                // item views show the names of comment authors
+                responseCache.invalidate("/items");
+            }
+        });
+    }
+
+    public Mono<ResponseEntity<byte[]>> delete(Long userId) {
+        return invalidating(delete("/" + userId), response -> {
+            responseCache.invalidate(API_PREFIX, "/" + userId);
+            // items, requests and comments of the user are deleted with it
+            responseCache.invalidate("/items");
+            responseCache.invalidate("/requests");
+        });
+    }
+
+    public Mono<ResponseEntity<byte[]>> getAll(Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get("?from={from}&size={size}", null, parameters);
     }
 
-    public ResponseEntity<Object> delete(Long userId) {
-        return delete("/" + userId);
+    /**
+     * Completes once shareit-server has answered with a success status, before any of the body is read, so the
+     * gateway commits its response only after that. An error status fails the returned Mono with a
+     * {@link WebClientResponseException} instead.
+     */
+    public Mono<StreamingResponseBody> streamAll(MediaType mediaType) {
+        return webClient.get()
+                .uri("")
+                .accept(mediaType)
+                .retrieve()
+                .toEntityFlux(DataBuffer.class)
+                .map(response -> out -> write(response.getBody(), out));
     }
 
-    public ResponseEntity<Object> getAll() {
-        return get("");
+    public Mono<ResponseEntity<byte[]>> getById(Long userId) {
+        return cachedGet("/" + userId, null);
     }
 
-    public ResponseEntity<Object> getById(Long userId) {
-        return get("/" + userId);
+    private static void write(Flux<DataBuffer> body, OutputStream out) {
+        DataBufferUtils.write(body, out)
+                .doOnNext(DataBufferUtils::release)
+                .blockLast();
     }
 
 }
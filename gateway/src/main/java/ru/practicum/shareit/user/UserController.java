@@ -3,12 +3,16 @@ package ru.practicum.shareit.user;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Min;
 
 @RestController
 @RequestMapping(path = "/users")
@@ -16,37 +20,59 @@ import javax.validation.Valid;
 @Slf4j
 @Validated
 public class UserController {
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final UserClient userClient;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> add(@Valid @RequestBody UserDto userDto) {
-        log.info("POST/addUser");
+    public Mono<ResponseEntity<byte[]>> add(@Valid @RequestBody UserDto userDto) {
+        log.debug("POST/addUser");
         return userClient.add(userDto);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> update(@PathVariable long id,
+    public Mono<ResponseEntity<byte[]>> update(@PathVariable long id,
                                          @RequestBody UserDto userDto) {
-        log.info("PATCH/updateUser");
+        log.debug("PATCH/updateUser");
         return userClient.update(id, userDto);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> delete(@PathVariable Long id) {
+    public Mono<ResponseEntity<byte[]>> delete(@PathVariable Long id) {
         return userClient.delete(id);
     }
 
+    @GetMapping(params = {"!from", "!size"})
+    public Mono<ResponseEntity<StreamingResponseBody>> streamAll() {
+        log.debug("GET/stream-All-Users");
+        return streamAll(MediaType.APPLICATION_JSON);
+    }
+
+    @GetMapping(params = {"!from", "!size"}, produces = "application/x-ndjson")
+    public Mono<ResponseEntity<StreamingResponseBody>> streamAllAsNdjson() {
+        log.debug("GET/stream-All-Users-Ndjson");
+        return streamAll(APPLICATION_NDJSON);
+    }
+
     @GetMapping
-    public ResponseEntity<Object> getAll() {
-        log.info("GET/get-All-Users");
-        return userClient.getAll();
+    public Mono<ResponseEntity<byte[]>> getAll(@RequestParam(required = false, defaultValue = "0") @Min(0) int from,
+                                         @RequestParam(required = false, defaultValue = "10") @Min(1) int size) {
+        log.debug("GET/get-All-Users");
+        return userClient.getAll(from, size);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getById(@PathVariable long id) {
-        log.info("GET/get-User-By-Id");
+    public Mono<ResponseEntity<byte[]>> getById(@PathVariable long id) {
+        log.debug("GET/get-User-By-Id");
         return userClient.getById(id);
     }
 
+    private Mono<ResponseEntity<StreamingResponseBody>> streamAll(MediaType mediaType) {
+        return userClient.streamAll(mediaType)
+                .map(body -> ResponseEntity.ok()
+                        .contentType(mediaType)
+                        .body(body));
+    }
+
 }
\ No newline at end of file
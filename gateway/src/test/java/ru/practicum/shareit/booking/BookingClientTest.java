@@ -0,0 +1,88 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingIncomingDto;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerCallTracing;
+import ru.practicum.shareit.item.ItemClient;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+@ExtendWith(MockitoExtension.class)
+class BookingClientTest {
+    private static final String SERVER_URL = "http://shareit-server";
+
+    private final ResponseCache responseCache = new ResponseCache(Duration.ofMinutes(1), 100, new SimpleMeterRegistry());
+    private final Map<String, Integer> gets = new HashMap<>();
+    private BookingClient bookingClient;
+    private ItemClient itemClient;
+    @Mock
+    private ServerCallTracing serverCallTracing;
+
+    @BeforeEach
+    void setUp() {
+        Mockito
+                .when(serverCallTracing.start(anyString(), any(HttpMethod.class)))
+                .thenReturn(Mockito.mock(Span.class, Mockito.RETURNS_SELF));
+        WebClient.Builder builder = WebClient.builder()
+                .exchangeFunction(request -> {
+                    if (request.method() == HttpMethod.GET) {
+                        gets.merge(request.url().getPath() + "|" + request.headers().getFirst("X-Sharer-User-Id"),
+                                1, Integer::sum);
+                    }
+                    return Mono.just(ClientResponse.create(HttpStatus.OK).body("{}").build());
+                });
+        bookingClient = new BookingClient(SERVER_URL, builder, responseCache, new SimpleMeterRegistry(),
+                serverCallTracing);
+        itemClient = new ItemClient(SERVER_URL, builder, responseCache, new SimpleMeterRegistry(),
+                serverCallTracing, new ObjectMapper());
+    }
+
+    @Test
+    void addKeepsCachedItemViews() {
+        readItems();
+
+        bookingClient.add(2L, new BookingIncomingDto(
+                null, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), 1L, null, null)).block();
+        readItems();
+
+        Assertions.assertEquals(1, gets.get("/items/1|1"));
+        Assertions.assertEquals(1, gets.get("/items/1|2"));
+    }
+
+    @Test
+    void approveInvalidatesItemViewsOfOwnerOnly() {
+        readItems();
+
+        bookingClient.approve(1L, 1L, true).block();
+        readItems();
+
+        Assertions.assertEquals(2, gets.get("/items/1|1"));
+        Assertions.assertEquals(1, gets.get("/items/1|2"));
+    }
+
+    private void readItems() {
+        itemClient.getById(1L, 1L).block();
+        itemClient.getById(2L, 1L).block();
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+class ResponseCacheTest {
+    private static final String ITEMS = "/items";
+
+    private final ResponseCache responseCache = new ResponseCache(Duration.ofMinutes(1), 100, new SimpleMeterRegistry());
+    private final Map<String, Integer> loads = new HashMap<>();
+
+    @Test
+    void getLoadsOnMissAndReturnsCachedResponseOnHit() {
+        ResponseEntity<byte[]> first = get(1L, "/1");
+        ResponseEntity<byte[]> second = get(1L, "/1");
+
+        Assertions.assertEquals("1|/1", new String(second.getBody(), StandardCharsets.UTF_8));
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, loads(1L, "/1"));
+    }
+
+    @Test
+    void getKeepsResponsesOfUsersApart() {
+        get(1L, "/1");
+        get(2L, "/1");
+
+        Assertions.assertEquals(1, loads(1L, "/1"));
+        Assertions.assertEquals(1, loads(2L, "/1"));
+    }
+
+    @Test
+    void getDoesNotCacheErrorResponses() {
+        getWithStatus(1L, "/1", HttpStatus.NOT_FOUND);
+        getWithStatus(1L, "/1", HttpStatus.NOT_FOUND);
+
+        Assertions.assertEquals(2, loads(1L, "/1"));
+    }
+
+    @Test
+    void invalidatePathDropsOnlyResponsesOfThatId() {
+        get(1L, "/1");
+        get(2L, "/1");
+        get(1L, "/12");
+        get(1L, "/search?text=item&from=0&size=10");
+
+        responseCache.invalidate(ITEMS, "/1");
+        get(1L, "/1");
+        get(2L, "/1");
+        get(1L, "/12");
+        get(1L, "/search?text=item&from=0&size=10");
+
+        Assertions.assertEquals(2, loads(1L, "/1"));
+        Assertions.assertEquals(2, loads(2L, "/1"));
+        Assertions.assertEquals(1, loads(1L, "/12"));
+        Assertions.assertEquals(1, loads(1L, "/search?text=item&from=0&size=10"));
+    }
+
+    @Test
+    void invalidateSearchDropsEverySearch() {
+        get(1L, "/search?text=item&from=0&size=10");
+        get(1L, "/search?text=drill&from=0&size=10");
+        get(1L, "/1");
+
+        responseCache.invalidate(ITEMS, "/search");
+        get(1L, "/search?text=item&from=0&size=10");
+        get(1L, "/search?text=drill&from=0&size=10");
+        get(1L, "/1");
+
+        Assertions.assertEquals(2, loads(1L, "/search?text=item&from=0&size=10"));
+        Assertions.assertEquals(2, loads(1L, "/search?text=drill&from=0&size=10"));
+        Assertions.assertEquals(1, loads(1L, "/1"));
+    }
+
+    @Test
+    void invalidateUserDropsOnlyResponsesServedToUser() {
+        get(1L, "/1");
+        get(2L, "/1");
+
+        responseCache.invalidateUser(ITEMS, 1L);
+        get(1L, "/1");
+        get(2L, "/1");
+
+        Assertions.assertEquals(2, loads(1L, "/1"));
+        Assertions.assertEquals(1, loads(2L, "/1"));
+    }
+
+    @Test
+    void invalidateResourceDropsEveryResponseOfResource() {
+        get(1L, "/1");
+        get(2L, "/2");
+        responseCache.get("/requests", 1L, "/1", () -> load(1L, "/requests/1", HttpStatus.OK)).block();
+
+        responseCache.invalidate(ITEMS);
+        get(1L, "/1");
+        get(2L, "/2");
+        responseCache.get("/requests", 1L, "/1", () -> load(1L, "/requests/1", HttpStatus.OK)).block();
+
+        Assertions.assertEquals(2, loads(1L, "/1"));
+        Assertions.assertEquals(2, loads(2L, "/2"));
+        Assertions.assertEquals(1, loads(1L, "/requests/1"));
+    }
+
+    @Test
+    void getDoesNotCacheResponseLoadedAcrossInvalidation() {
+        responseCache.get(ITEMS, 1L, "/1", () -> {
+            responseCache.invalidate(ITEMS, "/1");
+            return load(1L, "/1", HttpStatus.OK);
+        }).block();
+        get(1L, "/1");
+
+        Assertions.assertEquals(2, loads(1L, "/1"));
+    }
+
+    private ResponseEntity<byte[]> get(Long userId, String path) {
+        return getWithStatus(userId, path, HttpStatus.OK);
+    }
+
+    private ResponseEntity<byte[]> getWithStatus(Long userId, String path, HttpStatus status) {
+        return responseCache.get(ITEMS, userId, path, () -> load(userId, path, status)).block();
+    }
+
+    private Mono<ResponseEntity<byte[]>> load(Long userId, String path, HttpStatus status) {
+        loads.merge(userId + "|" + path, 1, Integer::sum);
+        return Mono.just(ResponseEntity.status(status).body((userId + "|" + path).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private int loads(Long userId, String path) {
+        return loads.getOrDefault(userId + "|" + path, 0);
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerCallTracing;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.RequestClient;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+@ExtendWith(MockitoExtension.class)
+class ItemClientTest {
+    private static final String SERVER_URL = "http://shareit-server";
+
+    private final ResponseCache responseCache = new ResponseCache(Duration.ofMinutes(1), 100, new SimpleMeterRegistry());
+    private final Map<String, Integer> gets = new HashMap<>();
+    private HttpStatus mutationStatus = HttpStatus.OK;
+    private ItemClient itemClient;
+    private RequestClient requestClient;
+    @Mock
+    private ServerCallTracing serverCallTracing;
+
+    @BeforeEach
+    void setUp() {
+        Mockito
+                .when(serverCallTracing.start(anyString(), any(HttpMethod.class)))
+                .thenReturn(Mockito.mock(Span.class, Mockito.RETURNS_SELF));
+        WebClient.Builder builder = WebClient.builder()
+                .exchangeFunction(request -> {
+                    if (request.method() == HttpMethod.GET) {
+                        gets.merge(request.url().getPath(), 1, Integer::sum);
+                        return Mono.just(ClientResponse.create(HttpStatus.OK).body("{}").build());
+                    }
+                    return Mono.just(ClientResponse.create(mutationStatus)
+                            .header("Content-Type", "application/json")
+                            .body("{\"id\":1,\"name\":\"Item1\",\"requestId\":5}")
+                            .build());
+                });
+        itemClient = new ItemClient(SERVER_URL, builder, responseCache, new SimpleMeterRegistry(),
+                serverCallTracing, new ObjectMapper());
+        requestClient = new RequestClient(SERVER_URL, builder, responseCache, new SimpleMeterRegistry(),
+                serverCallTracing);
+    }
+
+    @Test
+    void updateInvalidatesItemSearchAndRequestOfItem() {
+        readAll();
+
+        itemClient.update(1L, 1L, new ItemDto(null, "Item1", null, null, null)).block();
+        readAll();
+
+        Assertions.assertEquals(4, gets.get("/items/1"));
+        Assertions.assertEquals(1, gets.get("/items/2"));
+        Assertions.assertEquals(2, gets.get("/items/search"));
+        Assertions.assertEquals(2, gets.get("/requests/5"));
+        Assertions.assertEquals(1, gets.get("/requests/6"));
+    }
+
+    @Test
+    void addCommentInvalidatesOnlyItem() {
+        readAll();
+
+        itemClient.addComment(2L, 1L, new CommentDto()).block();
+        readAll();
+
+        Assertions.assertEquals(4, gets.get("/items/1"));
+        Assertions.assertEquals(1, gets.get("/items/2"));
+        Assertions.assertEquals(1, gets.get("/items/search"));
+        Assertions.assertEquals(1, gets.get("/requests/5"));
+    }
+
+    @Test
+    void rejectedUpdateKeepsCachedResponses() {
+        readAll();
+
+        mutationStatus = HttpStatus.NOT_FOUND;
+        itemClient.update(1L, 1L, new ItemDto(null, "Item1", null, null, null)).block();
+        readAll();
+
+        Assertions.assertEquals(2, gets.get("/items/1"));
+        Assertions.assertEquals(1, gets.get("/items/search"));
+        Assertions.assertEquals(1, gets.get("/requests/5"));
+    }
+
+    private void readAll() {
+        itemClient.getById(1L, 1L).block();
+        itemClient.getById(2L, 1L).block();
+        itemClient.getById(1L, 2L).block();
+        itemClient.search(1L, "item", 0, 10).block();
+        requestClient.getById(1L, 5L).block();
+        requestClient.getById(1L, 6L).block();
+    }
+}
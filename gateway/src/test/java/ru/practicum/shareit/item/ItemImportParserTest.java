@@ -0,0 +1,115 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import ru.practicum.shareit.item.dto.ItemImportRecordDto;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+class ItemImportParserTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ItemImportParser parser = new ItemImportParser(
+            objectMapper, Validation.buildDefaultValidatorFactory().getValidator());
+
+    @Test
+    void parseJsonLines() {
+        List<ItemImportRecordDto> records = parse(MediaType.APPLICATION_NDJSON,
+                "{\"name\":\"Item1\",\"description\":\"DescriptionItem1\",\"available\":true}\n"
+                        + "\n"
+                        + "{\"name\":\"Item2\",\"description\":\"DescriptionItem2\",\"available\":false,\"requestId\":5}\n");
+
+        Assertions.assertEquals(2, records.size());
+        Assertions.assertEquals(1L, records.get(0).getLine());
+        Assertions.assertEquals("Item1", records.get(0).getItem().getName());
+        Assertions.assertTrue(records.get(0).getItem().getAvailable());
+        Assertions.assertNull(records.get(0).getError());
+        Assertions.assertEquals(3L, records.get(1).getLine());
+        Assertions.assertEquals(5L, records.get(1).getItem().getRequestId());
+    }
+
+    @Test
+    void parseJsonLinesReportsBadLines() {
+        List<ItemImportRecordDto> records = parse(MediaType.APPLICATION_NDJSON,
+                "{\"name\":\"Item1\",\n"
+                        + "{\"name\":\"\",\"description\":\"DescriptionItem2\",\"available\":true}\n"
+                        + "null\n"
+                        + "{\"name\":\"Item4\",\"description\":\"DescriptionItem4\",\"available\":true}\n");
+
+        Assertions.assertEquals(4, records.size());
+        Assertions.assertNull(records.get(0).getItem());
+        Assertions.assertTrue(records.get(0).getError().startsWith("Malformed record: "));
+        Assertions.assertEquals(2L, records.get(1).getLine());
+        Assertions.assertNull(records.get(1).getItem());
+        Assertions.assertTrue(records.get(1).getError().startsWith("name "));
+        Assertions.assertEquals("Empty record.", records.get(2).getError());
+        Assertions.assertEquals("Item4", records.get(3).getItem().getName());
+    }
+
+    @Test
+    void parseCsv() {
+        List<ItemImportRecordDto> records = parse(MediaType.valueOf(ItemImportParser.TEXT_CSV),
+                "name,description,available,requestId\n"
+                        + "Item1, DescriptionItem1 ,true,\n"
+                        + "\"Item2\",\"Description\nover two lines\",false,5\n"
+                        + "Item3,DescriptionItem3,true,\n");
+
+        Assertions.assertEquals(3, records.size());
+        Assertions.assertEquals(2L, records.get(0).getLine());
+        Assertions.assertEquals("DescriptionItem1", records.get(0).getItem().getDescription());
+        Assertions.assertNull(records.get(0).getItem().getRequestId());
+        Assertions.assertEquals(3L, records.get(1).getLine());
+        Assertions.assertEquals("Description\nover two lines", records.get(1).getItem().getDescription());
+        Assertions.assertFalse(records.get(1).getItem().getAvailable());
+        Assertions.assertEquals(5L, records.get(1).getItem().getRequestId());
+        Assertions.assertEquals(5L, records.get(2).getLine());
+        Assertions.assertEquals("Item3", records.get(2).getItem().getName());
+    }
+
+    @Test
+    void parseCsvReportsInvalidRecords() {
+        List<ItemImportRecordDto> records = parse(MediaType.valueOf(ItemImportParser.TEXT_CSV),
+                "name,description,available\n"
+                        + "Item1,,true\n"
+                        + "Item2,DescriptionItem2,maybe\n"
+                        + "Item3,DescriptionItem3,true\n");
+
+        Assertions.assertEquals(3, records.size());
+        Assertions.assertEquals(2L, records.get(0).getLine());
+        Assertions.assertTrue(records.get(0).getError().startsWith("description "));
+        Assertions.assertEquals(3L, records.get(1).getLine());
+        Assertions.assertTrue(records.get(1).getError().startsWith("Malformed record: "));
+        Assertions.assertEquals(4L, records.get(2).getLine());
+        Assertions.assertEquals("Item3", records.get(2).getItem().getName());
+    }
+
+    private List<ItemImportRecordDto> parse(MediaType contentType, String body) {
+        return parser.parse(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), contentType)
+                .map(buffer -> {
+                    String line = buffer.toString(StandardCharsets.UTF_8);
+                    DataBufferUtils.release(buffer);
+                    return line;
+                })
+                .collectList()
+                .block()
+                .stream()
+                .map(this::readRecord)
+                .collect(Collectors.toList());
+    }
+
+    private ItemImportRecordDto readRecord(String line) {
+        try {
+            return objectMapper.readValue(line, ItemImportRecordDto.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
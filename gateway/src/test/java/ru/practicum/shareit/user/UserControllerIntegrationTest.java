@@ -0,0 +1,114 @@
+package ru.practicum.shareit.user;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Runs the gateway against a stub of shareit-server to check what the client receives from the non-paged GET /users.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class UserControllerIntegrationTest {
+    private static final String USERS = "[{\"id\":1,\"name\":\"User1\",\"email\":\"user1@yandex.ru\"}]";
+    private static final String USERS_NDJSON = "{\"id\":1,\"name\":\"User1\",\"email\":\"user1@yandex.ru\"}\n";
+    private static final String ERROR = "{\"error\":\"Server failure.\"}";
+
+    private static HttpServer server;
+    private static volatile int status;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/users", exchange -> {
+            String accept = exchange.getRequestHeaders().getFirst(HttpHeaders.ACCEPT);
+            boolean ndjson = accept != null && accept.contains("ndjson");
+            byte[] body = (status == 200 ? (ndjson ? USERS_NDJSON : USERS) : ERROR).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE,
+                    status == 200 && ndjson ? "application/x-ndjson" : MediaType.APPLICATION_JSON_VALUE);
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @Test
+    void streamAllPassesUsersThrough() {
+        status = 200;
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/users", String.class);
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(response.getHeaders().getContentType()));
+        Assertions.assertEquals(USERS, response.getBody());
+    }
+
+    @Test
+    void streamAllAsNdjsonPassesUsersThrough() {
+        status = 200;
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.parseMediaType("application/x-ndjson")));
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/users", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertEquals(USERS_NDJSON, response.getBody());
+    }
+
+    @Test
+    void streamAllReturnsErrorOfServer() {
+        status = 500;
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/users", String.class);
+
+        Assertions.assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        Assertions.assertEquals(ERROR, response.getBody());
+    }
+
+    @Test
+    void streamAllAsNdjsonReturnsErrorOfServer() {
+        status = 503;
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.parseMediaType("application/x-ndjson")));
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/users", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        Assertions.assertEquals(ERROR, response.getBody());
+    }
+}
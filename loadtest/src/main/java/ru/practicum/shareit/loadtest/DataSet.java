@@ -0,0 +1,73 @@
+package ru.practicum.shareit.loadtest;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class DataSet {
+    private static final long SLOT_HOURS = 2;
+
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<Long> itemIds = new ArrayList<>();
+    private final List<Long> requestIds = new ArrayList<>();
+    private final Map<Long, Long> ownerByItem = new HashMap<>();
+    private final LocalDateTime firstSlot = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    private final AtomicLong slots = new AtomicLong();
+
+    public void addUser(long userId) {
+        userIds.add(userId);
+    }
+
+    public void addItem(long itemId, long ownerId) {
+        itemIds.add(itemId);
+        ownerByItem.put(itemId, ownerId);
+    }
+
+    public void addRequest(long requestId) {
+        requestIds.add(requestId);
+    }
+
+    public List<Long> getUserIds() {
+        return userIds;
+    }
+
+    public List<Long> getItemIds() {
+        return itemIds;
+    }
+
+    public long ownerOf(long itemId) {
+        return ownerByItem.get(itemId);
+    }
+
+    public long randomUser(Random random) {
+        return userIds.get(random.nextInt(userIds.size()));
+    }
+
+    public long randomUserExcept(Random random, long userId) {
+        long other;
+        do {
+            other = randomUser(random);
+        } while (other == userId && userIds.size() > 1);
+        return other;
+    }
+
+    public long randomItem(Random random) {
+        return itemIds.get(random.nextInt(itemIds.size()));
+    }
+
+    public Long randomRequest(Random random) {
+        return requestIds.isEmpty() ? null : requestIds.get(random.nextInt(requestIds.size()));
+    }
+
+    /**
+     * Start of a booking slot no other booking uses, so generated bookings never overlap.
+     */
+    public LocalDateTime nextSlot() {
+        return firstSlot.plusHours(SLOT_HOURS * slots.getAndIncrement());
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Value;
+
+@Value
+public class EndpointSummary {
+    String endpoint;
+    long requests;
+    long errors;
+    double throughput;
+    double p50Millis;
+    double p90Millis;
+    double p99Millis;
+    double maxMillis;
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+public class LatencyRecorder {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long nanos, boolean successful) {
+        samples.computeIfAbsent(endpoint, key -> new Samples()).add(nanos, successful);
+    }
+
+    public List<EndpointSummary> summarize(Duration elapsed) {
+        double seconds = elapsed.toNanos() / 1_000_000_000.0;
+        return samples.entrySet().stream()
+                .map(entry -> entry.getValue().summarize(entry.getKey(), seconds))
+                .sorted(Comparator.comparing(EndpointSummary::getEndpoint))
+                .collect(Collectors.toList());
+    }
+
+    private static class Samples {
+        private long[] nanos = new long[1024];
+        private int size;
+        private long errors;
+
+        synchronized void add(long value, boolean successful) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = value;
+            if (!successful) {
+                errors++;
+            }
+        }
+
+        synchronized EndpointSummary summarize(String endpoint, double seconds) {
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            return new EndpointSummary(endpoint, size, errors, size / seconds,
+                    percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99),
+                    percentile(sorted, 100));
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+            return sorted[Math.max(0, rank - 1)] / NANOS_PER_MILLI;
+        }
+    }
+}
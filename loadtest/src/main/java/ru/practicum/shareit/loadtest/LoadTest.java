@@ -0,0 +1,46 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+
+@Slf4j
+public class LoadTest {
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        Files.createDirectories(config.getReportDir());
+
+        try (ApplicationProcess server = ApplicationProcess.start("ShareItServer", config.getServerJar(),
+                config.getReportDir().resolve("server.log"), List.of(
+                        "--spring.profiles.active=test",
+                        "--server.port=" + config.getServerPort(),
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.ru.practicum.shareit=info",
+                        "--logging.level.org.springframework.transaction.interceptor=info",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=info"));
+             ApplicationProcess gateway = ApplicationProcess.start("ShareItGateway", config.getGatewayJar(),
+                     config.getReportDir().resolve("gateway.log"), List.of(
+                             "--server.port=" + config.getGatewayPort(),
+                             "--shareit-server.url=http://localhost:" + config.getServerPort(),
+                             "--logging.level.org.springframework.web.reactive.function.client.ExchangeFunctions=info"))) {
+            server.awaitHealthy(config.getServerPort(), config.getStartupTimeout());
+            gateway.awaitHealthy(config.getGatewayPort(), config.getStartupTimeout());
+
+            ShareItClient client = new ShareItClient(config.getGatewayPort());
+            DataSet dataSet = new Seeder(client, config).seed();
+            Workload workload = new Workload(client, dataSet, config);
+
+            log.info("Warming up for {}", config.getWarmup());
+            workload.run(config.getWarmup(), new LatencyRecorder());
+
+            log.info("Measuring for {} with {} threads", config.getDuration(), config.getThreads());
+            LatencyRecorder recorder = new LatencyRecorder();
+            Duration elapsed = workload.run(config.getDuration(), recorder);
+
+            new ReportWriter().write(config, elapsed, recorder.summarize(elapsed));
+        }
+    }
+}
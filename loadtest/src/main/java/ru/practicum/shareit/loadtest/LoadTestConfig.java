@@ -0,0 +1,64 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.stream.Stream;
+
+@Value
+@Builder
+public class LoadTestConfig {
+    Path serverJar;
+    Path gatewayJar;
+    int serverPort;
+    int gatewayPort;
+    Duration startupTimeout;
+    int users;
+    int itemsPerUser;
+    int bookingsPerItem;
+    int threads;
+    Duration warmup;
+    Duration duration;
+    long seed;
+    Path reportDir;
+
+    public static LoadTestConfig fromSystemProperties() {
+        return LoadTestConfig.builder()
+                .serverJar(jar("loadtest.server-jar", Path.of("server", "target"), "-exec.jar"))
+                .gatewayJar(jar("loadtest.gateway-jar", Path.of("gateway", "target"), ".jar"))
+                .serverPort(Integer.getInteger("loadtest.server-port", 19090))
+                .gatewayPort(Integer.getInteger("loadtest.gateway-port", 18080))
+                .startupTimeout(Duration.parse(System.getProperty("loadtest.startup-timeout", "PT2M")))
+                .users(Integer.getInteger("loadtest.users", 50))
+                .itemsPerUser(Integer.getInteger("loadtest.items-per-user", 20))
+                .bookingsPerItem(Integer.getInteger("loadtest.bookings-per-item", 2))
+                .threads(Integer.getInteger("loadtest.threads", 16))
+                .warmup(Duration.parse(System.getProperty("loadtest.warmup", "PT30S")))
+                .duration(Duration.parse(System.getProperty("loadtest.duration", "PT2M")))
+                .seed(Long.getLong("loadtest.seed", 42L))
+                .reportDir(Path.of(System.getProperty("loadtest.report-dir", "loadtest/target/report")))
+                .build();
+    }
+
+    private static Path jar(String property, Path directory, String suffix) {
+        String configured = System.getProperty(property);
+        if (configured != null) {
+            return Path.of(configured);
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> file.getFileName().toString().endsWith(suffix))
+                    .filter(file -> suffix.equals("-exec.jar") || !file.getFileName().toString().endsWith("-exec.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No " + suffix + " in " + directory
+                            + ", build the project first or set -D" + property));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list " + directory + ", set -D" + property, e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum Operation {
+    SEARCH_ITEMS("GET /items/search", 30),
+    GET_OWNER_ITEMS("GET /items", 20),
+    GET_ITEM("GET /items/{id}", 15),
+    GET_OWNER_BOOKINGS("GET /bookings/owner", 5),
+    GET_ALL_REQUESTS("GET /requests/all", 10),
+    GET_REQUEST("GET /requests/{id}", 5),
+    ADD_BOOKING("POST /bookings", 10),
+    APPROVE_BOOKING("PATCH /bookings/{id}", 5);
+
+    private final String endpoint;
+    private final int weight;
+}
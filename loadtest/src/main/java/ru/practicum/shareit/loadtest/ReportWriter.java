@@ -0,0 +1,57 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+public class ReportWriter {
+    private static final String CSV_HEADER = "endpoint,requests,errors,throughput,p50_ms,p90_ms,p99_ms,max_ms";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    public void write(LoadTestConfig config, Duration elapsed, List<EndpointSummary> summaries) throws IOException {
+        Files.createDirectories(config.getReportDir());
+
+        List<String> lines = summaries.stream()
+                .map(summary -> String.format(Locale.ROOT, "%s,%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f",
+                        summary.getEndpoint(), summary.getRequests(), summary.getErrors(), summary.getThroughput(),
+                        summary.getP50Millis(), summary.getP90Millis(), summary.getP99Millis(),
+                        summary.getMaxMillis()))
+                .collect(Collectors.toList());
+        lines.add(0, CSV_HEADER);
+        Path csv = config.getReportDir().resolve("report.csv");
+        Files.write(csv, lines);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("finishedAt", LocalDateTime.now().toString());
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("users", config.getUsers());
+        report.put("itemsPerUser", config.getItemsPerUser());
+        report.put("bookingsPerItem", config.getBookingsPerItem());
+        report.put("threads", config.getThreads());
+        report.put("warmup", config.getWarmup().toString());
+        report.put("duration", elapsed.toString());
+        report.put("seed", config.getSeed());
+        report.put("endpoints", summaries);
+        Path json = config.getReportDir().resolve("report.json");
+        objectMapper.writeValue(json.toFile(), report);
+
+        summaries.forEach(summary -> log.info(String.format(Locale.ROOT,
+                "%-22s %8d req %6d err %9.1f req/s  p50 %8.2f ms  p99 %8.2f ms",
+                summary.getEndpoint(), summary.getRequests(), summary.getErrors(), summary.getThroughput(),
+                summary.getP50Millis(), summary.getP99Millis())));
+        log.info("Report written to {} and {}", csv, json);
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+@Slf4j
+@RequiredArgsConstructor
+public class Seeder {
+    private static final int APPROVE_BATCH_SIZE = 100;
+    private static final int ITEMS_PER_REQUEST_ANSWER = 5;
+
+    private final ShareItClient client;
+    private final LoadTestConfig config;
+
+    public DataSet seed() {
+        Random random = new Random(config.getSeed());
+        DataSet dataSet = new DataSet();
+
+        for (int user = 1; user <= config.getUsers(); user++) {
+            dataSet.addUser(client.addUser("User" + user, "user" + user + "@loadtest.ru").id());
+        }
+        for (long userId : dataSet.getUserIds()) {
+            dataSet.addRequest(client.addRequest(userId, "Need something " + userId).id());
+        }
+
+        int number = 0;
+        for (long ownerId : dataSet.getUserIds()) {
+            for (int i = 0; i < config.getItemsPerUser(); i++, number++) {
+                Long requestId = number % ITEMS_PER_REQUEST_ANSWER == 0 ? dataSet.randomRequest(random) : null;
+                long itemId = client.addItem(ownerId, "Item" + number + " " + Words.pick(random),
+                        "DescriptionItem" + number + " " + Words.pick(random), requestId).id();
+                dataSet.addItem(itemId, ownerId);
+            }
+        }
+
+        Map<Long, List<Long>> bookingsByOwner = new LinkedHashMap<>();
+        for (long itemId : dataSet.getItemIds()) {
+            long ownerId = dataSet.ownerOf(itemId);
+            for (int i = 0; i < config.getBookingsPerItem(); i++) {
+                LocalDateTime start = dataSet.nextSlot();
+                long bookingId = client.addBooking(dataSet.randomUserExcept(random, ownerId), itemId,
+                        start, start.plusHours(1)).id();
+                bookingsByOwner.computeIfAbsent(ownerId, id -> new ArrayList<>()).add(bookingId);
+            }
+        }
+        bookingsByOwner.forEach((ownerId, bookingIds) -> {
+            for (int from = 0; from < bookingIds.size(); from += APPROVE_BATCH_SIZE) {
+                ShareItClient.Response response = client.approveBookings(ownerId,
+                        bookingIds.subList(from, Math.min(bookingIds.size(), from + APPROVE_BATCH_SIZE)));
+                if (!response.isSuccessful()) {
+                    throw new IllegalStateException("Cannot approve bookings of user " + ownerId
+                            + ": " + response.getStatus());
+                }
+            }
+        });
+
+        log.info("Seeded {} users, {} items, {} bookings", dataSet.getUserIds().size(), dataSet.getItemIds().size(),
+                dataSet.getItemIds().size() * config.getBookingsPerItem());
+        return dataSet;
+    }
+}
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import lombok.Value;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ShareItClient {
+    private static final String REQUEST_HEADER = "X-Sharer-User-Id";
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(TIMEOUT)
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+
+    public ShareItClient(int port) {
+        this.baseUrl = "http://localhost:" + port;
+    }
+
+    public Response addUser(String name, String email) {
+        return send(post("/users", null, Map.of("name", name, "email", email)));
+    }
+
+    public Response addItem(long userId, String name, String description, Long requestId) {
+        Map<String, Object> item = new HashMap<>();
+        item.put("name", name);
+        item.put("description", description);
+        item.put("available", true);
+        item.put("requestId", requestId);
+        return send(post("/items", userId, item));
+    }
+
+    public Response addRequest(long userId, String description) {
+        return send(post("/requests", userId, Map.of("description", description)));
+    }
+
+    public Response addBooking(long userId, long itemId, LocalDateTime start, LocalDateTime end) {
+        return send(post("/bookings", userId, Map.of(
+                "itemId", itemId,
+                "start", start.truncatedTo(ChronoUnit.SECONDS).toString(),
+                "end", end.truncatedTo(ChronoUnit.SECONDS).toString())));
+    }
+
+    public Response approveBooking(long userId, long bookingId) {
+        return send(request("/bookings/" + bookingId + "?approved=true", userId)
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                .build());
+    }
+
+    public Response approveBookings(long userId, List<Long> bookingIds) {
+        return send(request("/bookings/approve-batch?approved=true", userId)
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(toJson(bookingIds)))
+                .build());
+    }
+
+    public Response search(long userId, String text, int from, int size) {
+        return get("/items/search?text=" + text + "&from=" + from + "&size=" + size, userId);
+    }
+
+    public Response getItemsOfOwner(long userId, int from, int size) {
+        return get("/items?from=" + from + "&size=" + size, userId);
+    }
+
+    public Response getItem(long userId, long itemId) {
+        return get("/items/" + itemId, userId);
+    }
+
+    public Response getBookingsOfOwner(long userId, int from, int size) {
+        return get("/bookings/owner?from=" + from + "&size=" + size, userId);
+    }
+
+    public Response getAllRequests(long userId, int from, int size) {
+        return get("/requests/all?from=" + from + "&size=" + size, userId);
+    }
+
+    public Response getRequest(long userId, long requestId) {
+        return get("/requests/" + requestId, userId);
+    }
+
+    private Response get(String path, long userId) {
+        return send(request(path, userId).GET().build());
+    }
+
+    private HttpRequest post(String path, Long userId, Object body) {
+        return request(path, userId)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(toJson(body)))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, Long userId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+        if (userId != null) {
+            builder.header(REQUEST_HEADER, String.valueOf(userId));
+        }
+        return builder;
+    }
+
+    private Response send(HttpRequest request) {
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            return new Response(response.statusCode(), response.body());
+        } catch (IOException e) {
+            return new Response(0, new byte[0]);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(0, new byte[0]);
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Value
+    public class Response {
+        int status;
+        byte[] body;
+
+        public boolean isSuccessful() {
+            return status >= 200 && status < 300;
+        }
+
+        public long id() {
+            JsonNode id = json().path("id");
+            if (!isSuccessful() || !id.canConvertToLong()) {
+                throw new IllegalStateException("Unexpected response " + status + ": " + new String(body));
+            }
+            return id.asLong();
+        }
+
+        public JsonNode json() {
+            try {
+                return body.length == 0 ? MissingNode.getInstance() : objectMapper.readTree(body);
+            } catch (IOException e) {
+                return MissingNode.getInstance();
+            }
+        }
+    }
+}
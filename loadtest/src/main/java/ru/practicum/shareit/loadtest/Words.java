@@ -0,0 +1,17 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.List;
+import java.util.Random;
+
+@UtilityClass
+public class Words {
+    public static final List<String> VOCABULARY = List.of(
+            "drill", "ladder", "tent", "bicycle", "projector", "camera", "kayak", "saw",
+            "guitar", "stroller", "grill", "scooter", "tripod", "hammer", "vacuum", "skis");
+
+    public static String pick(Random random) {
+        return VOCABULARY.get(random.nextInt(VOCABULARY.size()));
+    }
+}
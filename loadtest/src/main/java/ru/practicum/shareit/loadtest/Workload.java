@@ -0,0 +1,118 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+@Slf4j
+@RequiredArgsConstructor
+public class Workload {
+    private static final int PAGE_SIZE = 10;
+    private static final int MAX_PAGE = 5;
+    private static final int TOTAL_WEIGHT = Arrays.stream(Operation.values()).mapToInt(Operation::getWeight).sum();
+
+    private final ShareItClient client;
+    private final DataSet dataSet;
+    private final LoadTestConfig config;
+    private final Queue<PendingBooking> pendingBookings = new ConcurrentLinkedQueue<>();
+
+    public Duration run(Duration duration, LatencyRecorder recorder) throws InterruptedException {
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + duration.toNanos();
+        List<Thread> workers = new ArrayList<>();
+
+        for (int i = 0; i < config.getThreads(); i++) {
+            Random random = new Random(config.getSeed() + i);
+            Thread worker = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    execute(pick(random), random, recorder);
+                }
+            }, "loadtest-worker-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return Duration.ofNanos(System.nanoTime() - startedAt);
+    }
+
+    private void execute(Operation operation, Random random, LatencyRecorder recorder) {
+        PendingBooking pending = null;
+        if (operation == Operation.APPROVE_BOOKING) {
+            pending = pendingBookings.poll();
+            if (pending == null) {
+                operation = Operation.ADD_BOOKING;
+            }
+        }
+
+        long userId = dataSet.randomUser(random);
+        long itemId = dataSet.randomItem(random);
+        long started = System.nanoTime();
+        ShareItClient.Response response;
+        switch (operation) {
+            case SEARCH_ITEMS:
+                response = client.search(userId, Words.pick(random), page(random), PAGE_SIZE);
+                break;
+            case GET_OWNER_ITEMS:
+                response = client.getItemsOfOwner(userId, page(random), PAGE_SIZE);
+                break;
+            case GET_ITEM:
+                response = client.getItem(userId, itemId);
+                break;
+            case GET_OWNER_BOOKINGS:
+                response = client.getBookingsOfOwner(userId, page(random), PAGE_SIZE);
+                break;
+            case GET_ALL_REQUESTS:
+                response = client.getAllRequests(userId, page(random), PAGE_SIZE);
+                break;
+            case GET_REQUEST:
+                response = client.getRequest(userId, dataSet.randomRequest(random));
+                break;
+            case ADD_BOOKING:
+                LocalDateTime start = dataSet.nextSlot();
+                response = client.addBooking(dataSet.randomUserExcept(random, dataSet.ownerOf(itemId)), itemId,
+                        start, start.plusHours(1));
+                break;
+            case APPROVE_BOOKING:
+                response = client.approveBooking(pending.ownerId, pending.bookingId);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+        recorder.record(operation.getEndpoint(), System.nanoTime() - started, response.isSuccessful());
+
+        if (operation == Operation.ADD_BOOKING && response.isSuccessful()) {
+            pendingBookings.add(new PendingBooking(dataSet.ownerOf(itemId), response.id()));
+        }
+    }
+
+    private static Operation pick(Random random) {
+        int point = random.nextInt(TOTAL_WEIGHT);
+        for (Operation operation : Operation.values()) {
+            point -= operation.getWeight();
+            if (point < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Weights do not add up");
+    }
+
+    private static int page(Random random) {
+        return random.nextInt(MAX_PAGE) * PAGE_SIZE;
+    }
+
+    @RequiredArgsConstructor
+    private static class PendingBooking {
+        private final long ownerId;
+        private final long bookingId;
+    }
+}
@@ -3,13 +3,19 @@ package ru.practicum.shareit.booking.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingIncomingDto;
 import ru.practicum.shareit.booking.dto.BookingOutgoingDto;
 import ru.practicum.shareit.booking.model.BookingRequestState;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.InvalidCursorException;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.util.Collection;
+import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -24,43 +30,83 @@ public class BookingController {
     @ResponseStatus(HttpStatus.CREATED)
     public BookingOutgoingDto add(@RequestHeader(REQUEST_HEADER) Long userId,
                                   @RequestBody BookingIncomingDto bookingIncomingDto) {
-        log.info("POST/addBooking");
+        log.debug("POST/addBooking");
         return bookingService.add(bookingIncomingDto, userId);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> addAll(@RequestHeader(REQUEST_HEADER) Long userId,
+                                              @RequestBody List<BookingIncomingDto> bookings) {
+        log.debug("POST/add-Bookings-Batch");
+        return bookingService.addAll(bookings, userId);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingOutgoingDto approve(@RequestHeader(REQUEST_HEADER) Long userId,
                                       @PathVariable Long bookingId,
                                       @RequestParam Boolean approved) {
-        log.info("PATCH/approve-Booking");
+        log.debug("PATCH/approve-Booking");
         return bookingService.approve(bookingId, approved, userId);
     }
 
+    @PatchMapping("/approve-batch")
+    public List<BookingBatchResultDto> approveAll(@RequestHeader(REQUEST_HEADER) Long userId,
+                                                  @RequestParam Boolean approved,
+                                                  @RequestBody List<Long> bookingIds) {
+        log.debug("PATCH/approve-Bookings-Batch");
+        return bookingService.approveAll(bookingIds, approved, userId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingOutgoingDto getById(@PathVariable Long bookingId,
-                                      @RequestHeader(REQUEST_HEADER) Long userId) {
-        log.info("GET/get-Booking-By-Id");
+                                      @RequestHeader(REQUEST_HEADER) Long userId,
+                                      WebRequest request) {
+        log.debug("GET/get-Booking-By-Id");
+        if (request.checkNotModified(bookingService.getVersionTag(bookingId, userId))) {
+            return null;
+        }
         return bookingService.getById(bookingId, userId);
     }
 
     @GetMapping
-    public Collection<BookingOutgoingDto> getAllByBookerId(
+    public ResponseEntity<Collection<BookingOutgoingDto>> getAllByBookerId(
             @RequestHeader(REQUEST_HEADER) Long userId,
             @RequestParam(required = false, defaultValue = "ALL") BookingRequestState state,
             @RequestParam(required = false, defaultValue = "0") int from,
-            @RequestParam(required = false, defaultValue = "10") int size) {
-        log.info("GET/get-All-Bookings-By-UserId");
-        return bookingService.getAllByBookerId(userId, state, from, size);
+            @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        log.debug("GET/get-All-Bookings-By-UserId");
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.getAllByBookerId(userId, state, from, size));
+        }
+        checkCursorState(state);
+        return PageCursor.toResponse(
+                bookingService.getAllByBookerIdBefore(userId, PageCursor.decode(cursor), size),
+                size,
+                booking -> new PageCursor(booking.getEnd(), booking.getId()));
     }
 
     @GetMapping("/owner")
-    public Collection<BookingOutgoingDto> getAllByItemsOfUser(
+    public ResponseEntity<Collection<BookingOutgoingDto>> getAllByItemsOfUser(
             @RequestHeader(REQUEST_HEADER) Long userId,
             @RequestParam(required = false, defaultValue = "ALL") BookingRequestState state,
             @RequestParam(required = false, defaultValue = "0") int from,
-            @RequestParam(required = false, defaultValue = "10") int size) {
-        log.info("GET/get-All-Bookings-By-Items-Of-User");
-        return bookingService.getAllByItemsOfUser(userId, state, from, size);
+            @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        log.debug("GET/get-All-Bookings-By-Items-Of-User");
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.getAllByItemsOfUser(userId, state, from, size));
+        }
+        checkCursorState(state);
+        return PageCursor.toResponse(
+                bookingService.getAllByItemsOfUserBefore(userId, PageCursor.decode(cursor), size),
+                size,
+                booking -> new PageCursor(booking.getEnd(), booking.getId()));
     }
 
+    private void checkCursorState(BookingRequestState state) {
+        if (state != BookingRequestState.ALL) {
+            throw new InvalidCursorException("Cursor pagination is supported for state ALL only.");
+        }
+    }
 }
@@ -6,6 +6,7 @@ import ru.practicum.shareit.booking.dto.BookingOutgoingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummaryBooking;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
@@ -46,6 +47,17 @@ public class BookingMapper {
         return bookingDtoForOwner;
     }
 
+    public static BookingDtoForOwner mapToBookingDtoForOwner(ItemSummaryBooking booking) {
+        if (booking == null) {
+            return null;
+        }
+        BookingDtoForOwner bookingDtoForOwner = new BookingDtoForOwner();
+        bookingDtoForOwner.setId(booking.getBookingId());
+        bookingDtoForOwner.setBookerId(booking.getBookerId());
+
+        return bookingDtoForOwner;
+    }
+
     public static Booking mapToBooking(BookingIncomingDto bookingIncomingDto, Item item, User booker) {
         Booking booking = new Booking();
         booking.setId(bookingIncomingDto.getId());
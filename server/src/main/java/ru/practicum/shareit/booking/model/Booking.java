@@ -17,7 +17,8 @@ import java.util.Objects;
 public class Booking {
     @Id
     @Column(name = "booking_id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "booking_start")
@@ -40,6 +41,10 @@ public class Booking {
     @Column(name = "booking_status")
     private BookingStatus status;
 
+    @Version
+    @Column(name = "booking_version", nullable = false)
+    private Long version;
+
     @ru.practicum.shareit.util.Generated
     @Override
     public boolean equals(Object o) {
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class BookingInterval {
+    private final Long bookingId;
+    private final Long bookerId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+}
@@ -1,41 +1,137 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByBookerIdOrderByEndDesc(Long bookerId, Pageable pageable);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByIdIn(Collection<Long> ids);
 
+    @Query("select b from Booking b " +
+            "where b.booker.id = ?1 " +
+            "order by b.end desc, b.id desc")
+    List<Booking> findAllByBookerIdOrderByEndDescIdDesc(Long bookerId, Pageable pageable);
+
+    @Query("select b from Booking b " +
+            "where b.booker.id = ?1 " +
+            "and (b.end < ?2 or (b.end = ?2 and b.id < ?3)) " +
+            "order by b.end desc, b.id desc")
+    List<Booking> findAllByBookerIdBefore(Long bookerId, LocalDateTime end, Long id, Pageable pageable);
+
+    @Query("select b from Booking b " +
+            "where b.booker.id = ?1 and b.start < ?2 and b.end > ?3 " +
+            "order by b.start")
     List<Booking> findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartAsc(
             Long bookerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
 
+    @Query("select b from Booking b " +
+            "where b.booker.id = ?1 and b.end < ?2 " +
+            "order by b.start desc")
     List<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(Long bookerId, LocalDateTime end, Pageable pageable);
 
+    @Query("select b from Booking b " +
+            "where b.booker.id = ?1 and b.start > ?2 " +
+            "order by b.start desc")
     List<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(Long bookerId, LocalDateTime start, Pageable pageable);
 
+    @Query("select b from Booking b " +
+            "where b.booker.id = ?1 and b.status = ?2 " +
+            "order by b.start desc")
     List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status, Pageable pageable);
 
-    List<Booking> findAllByItemOwnerIdOrderByEndDesc(Long ownerId, Pageable pageable);
+    @Query("select b from Booking b " +
+            "where b.item.owner.id = ?1 " +
+            "order by b.end desc, b.id desc")
+    List<Booking> findAllByItemOwnerIdOrderByEndDescIdDesc(Long ownerId, Pageable pageable);
 
+    @Query("select b from Booking b " +
+            "where b.item.owner.id = ?1 " +
+            "and (b.end < ?2 or (b.end = ?2 and b.id < ?3)) " +
+            "order by b.end desc, b.id desc")
+    List<Booking> findAllByItemOwnerIdBefore(Long ownerId, LocalDateTime end, Long id, Pageable pageable);
+
+    @Query("select b from Booking b " +
+            "where b.item.owner.id = ?1 and b.start < ?2 and b.end > ?3 " +
+            "order by b.start desc")
     List<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
             Long bookerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
 
+    @Query("select b from Booking b " +
+            "where b.item.owner.id = ?1 and b.end < ?2 " +
+            "order by b.start desc")
     List<Booking> findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(Long ownerId, LocalDateTime end, Pageable pageable);
 
+    @Query("select b from Booking b " +
+            "where b.item.owner.id = ?1 and b.start > ?2 " +
+            "order by b.start desc")
     List<Booking> findAllByItemOwnerIdAndStartAfterOrderByStartDesc(Long ownerId, LocalDateTime start, Pageable pageable);
 
+    @Query("select b from Booking b " +
+            "where b.item.owner.id = ?1 and b.status = ?2 " +
+            "order by b.start desc")
     List<Booking> findAllByItemOwnerIdAndStatusOrderByStartDesc(Long ownerId, BookingStatus status, Pageable pageable);
 
-    Booking findFirstByItemIdAndStatusAndStartIsBeforeOrderByStartDesc(
-            Long itemId, BookingStatus status, LocalDateTime start);
+    List<Booking> findAllByItemIdAndStatusInAndEndIsAfter(
+            Long itemId, Collection<BookingStatus> statuses, LocalDateTime end);
+
+    boolean existsByItemIdAndStatusAndStartIsBeforeAndEndIsAfter(
+            Long itemId, BookingStatus status, LocalDateTime end, LocalDateTime start);
+
+    @Query("select b from Booking b " +
+            "where b.item.id in ?1 and b.status = ?2 and b.start < ?4 and b.end > ?3")
+    List<Booking> findAllByItemIdInOverlapping(Collection<Long> itemIds, BookingStatus status,
+                                               LocalDateTime start, LocalDateTime end);
+
+    @Query(value = "select ranked.item_id as itemId, ranked.booking_id as id, " +
+            "ranked.booker_id as bookerId, ranked.booking_start as bookingStart, ranked.past as past " +
+            "from (select b.item_id, b.booking_id, b.booker_id, b.booking_start, " +
+            "b.booking_start < :now as past, " +
+            "row_number() over (partition by b.item_id, b.booking_start < :now " +
+            "order by case when b.booking_start < :now then b.booking_start end desc, " +
+            "b.booking_start, b.booking_id) as row_num " +
+            "from bookings b " +
+            "where b.item_id in :itemIds " +
+            "and b.booking_status = :#{#status.name()} " +
+            "and b.booking_start <> :now) ranked " +
+            "where ranked.row_num = 1", nativeQuery = true)
+    List<AdjacentBooking> findLastAndNextByItemIdIn(@Param("itemIds") Collection<Long> itemIds,
+                                                    @Param("status") BookingStatus status,
+                                                    @Param("now") LocalDateTime now);
+
+    @Query("select b.version as version, i.version as itemVersion, u.version as bookerVersion " +
+            "from Booking b join b.item i join b.booker u " +
+            "where b.id = ?1 and (u.id = ?2 or i.owner.id = ?2)")
+    Optional<BookingState> findStateByIdAndUserId(Long bookingId, Long userId);
+
+    interface BookingState {
+        Long getVersion();
+
+        Long getItemVersion();
+
+        Long getBookerVersion();
+    }
+
+    interface AdjacentBooking {
+        Long getItemId();
+
+        Long getId();
+
+        Long getBookerId();
+
+        LocalDateTime getBookingStart();
 
-    Booking findFirstByItemIdAndStatusAndStartIsAfterOrderByStartAsc(
-            Long itemId, BookingStatus status, LocalDateTime end);
+        Boolean getPast();
+    }
 }
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-item sorted sets of the WAITING and APPROVED bookings that have not ended yet.
+ * Sets are loaded on first access, pruned of ended bookings on every read and otherwise kept current by
+ * {@link #onBookingChanged(Booking)}, which is applied only after the surrounding transaction commits.
+ * At most {@link #MAX_ITEMS} sets are kept.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalCache {
+    public static final int MAX_ITEMS = 10_000;
+    private static final Set<BookingStatus> BUSY_STATUSES = EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+    public static final Comparator<BookingInterval> BY_START = Comparator
+            .comparing(BookingInterval::getStart)
+            .thenComparing(BookingInterval::getBookingId);
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, NavigableSet<BookingInterval>> intervals = Caffeine.newBuilder()
+            .maximumSize(MAX_ITEMS)
+            .build();
+    private final AtomicLong changes = new AtomicLong();
+
+    public NavigableSet<BookingInterval> getIntervals(Long itemId) {
+        LocalDateTime now = LocalDateTime.now();
+        NavigableSet<BookingInterval> set = intervals.getIfPresent(itemId);
+        if (set != null) {
+            set.removeIf(interval -> !interval.getEnd().isAfter(now));
+            return set;
+        }
+
+        long seen = changes.get();
+        NavigableSet<BookingInterval> loaded = load(itemId, now);
+        if (changes.get() != seen) {
+            // a change committed while loading may be missing from the loaded set
+            return loaded;
+        }
+        NavigableSet<BookingInterval> cached = intervals.asMap().putIfAbsent(itemId, loaded);
+        return cached != null ? cached : loaded;
+    }
+
+    public void onBookingChanged(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        BookingInterval interval = new BookingInterval(
+                booking.getId(), booking.getBooker().getId(), booking.getStart(), booking.getEnd());
+        boolean busy = BUSY_STATUSES.contains(booking.getStatus());
+
+        afterCommit(() -> {
+            changes.incrementAndGet();
+            intervals.asMap().computeIfPresent(itemId, (id, set) -> {
+                if (busy) {
+                    set.add(interval);
+                } else {
+                    set.remove(interval);
+                }
+                return set;
+            });
+        });
+    }
+
+    public void evict(Long itemId) {
+        afterCommit(() -> {
+            changes.incrementAndGet();
+            intervals.invalidate(itemId);
+        });
+    }
+
+    /**
+     * Drops the bookings of a deleted user, which the database removes by cascade.
+     */
+    public void evictUser(Long userId) {
+        afterCommit(() -> {
+            changes.incrementAndGet();
+            intervals.asMap().values().forEach(set -> set.removeIf(interval -> userId.equals(interval.getBookerId())));
+        });
+    }
+
+    private NavigableSet<BookingInterval> load(Long itemId, LocalDateTime now) {
+        NavigableSet<BookingInterval> set = new ConcurrentSkipListSet<>(BY_START);
+        for (Booking booking : bookingRepository.findAllByItemIdAndStatusInAndEndIsAfter(
+                itemId, BUSY_STATUSES, now)) {
+            set.add(new BookingInterval(
+                    booking.getId(), booking.getBooker().getId(), booking.getStart(), booking.getEnd()));
+        }
+        return set;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
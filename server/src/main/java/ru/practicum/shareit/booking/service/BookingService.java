@@ -1,19 +1,32 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingIncomingDto;
 import ru.practicum.shareit.booking.dto.BookingOutgoingDto;
 import ru.practicum.shareit.booking.model.BookingRequestState;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.util.Collection;
+import java.util.List;
 
 public interface BookingService {
     BookingOutgoingDto add(BookingIncomingDto bookingIncomingDto, Long bookerId);
 
+    List<BookingBatchResultDto> addAll(List<BookingIncomingDto> bookings, Long bookerId);
+
     BookingOutgoingDto approve(Long bookingId, Boolean approved, Long userId);
 
+    List<BookingBatchResultDto> approveAll(List<Long> bookingIds, Boolean approved, Long userId);
+
     BookingOutgoingDto getById(Long bookingId, Long userId);
 
+    String getVersionTag(Long bookingId, Long userId);
+
     Collection<BookingOutgoingDto> getAllByBookerId(Long bookerId, BookingRequestState state, int from, int size);
 
     Collection<BookingOutgoingDto> getAllByItemsOfUser(Long userId, BookingRequestState state, int from, int size);
+
+    Collection<BookingOutgoingDto> getAllByBookerIdBefore(Long bookerId, PageCursor cursor, int size);
+
+    Collection<BookingOutgoingDto> getAllByItemsOfUserBefore(Long userId, PageCursor cursor, int size);
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -7,6 +8,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingIncomingDto;
 import ru.practicum.shareit.booking.dto.BookingOutgoingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
@@ -14,25 +16,46 @@ import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingRequestState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.BookingOverlapException;
+import ru.practicum.shareit.exception.InvalidCursorException;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.NotSavedException;
 import ru.practicum.shareit.exception.NotSupportedStatusException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemSummaryCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.EntityTag;
+import ru.practicum.shareit.util.OffsetPageRequest;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Timed("shareit.service")
 @RequiredArgsConstructor
 @Slf4j
 public class BookingServiceImpl implements BookingService {
+    private static final String OVERLAP_CONSTRAINT = "excl_bookings_item_approved_overlap";
+
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final BookingIntervalCache bookingIntervalCache;
+    private final ItemSummaryCache itemSummaryCache;
 
     @Transactional
     @Override
@@ -40,33 +63,83 @@ public class BookingServiceImpl implements BookingService {
         Item item = itemRepository.findById(bookingIncomingDto.getItemId()).orElseThrow(() ->
                 new NotFoundException("Item with id " + bookingIncomingDto.getItemId() + " was not found."));
 
-        if (!item.getAvailable()) {
-            throw new NotAvailableException("Item " + item.getId() + " is not available for booking");
-        }
-
-        if (item.getOwner().getId().equals(bookerId)) {
-            throw new NotFoundException("Item can not be booked by owner.");
-        }
-
-        if (!bookingIncomingDto.validate()) {
-            throw new NotAvailableException("End of booking must be after start.");
-        }
+        checkBookable(item, bookingIncomingDto, bookerId);
 
         User booker = userRepository.findById(bookerId).orElseThrow(() ->
                 new NotFoundException("User with id " + bookerId + " was not found."));
 
+        checkOverlap(item.getId(), bookingIncomingDto.getStart(), bookingIncomingDto.getEnd());
+
         Booking booking = BookingMapper.mapToBooking(bookingIncomingDto, item, booker);
         booking.setStatus(BookingStatus.WAITING);
 
         try {
             bookingRepository.save(booking);
-            log.info("New booking id " + booking.getId() + " has been saved.");
+            bookingIntervalCache.onBookingChanged(booking);
+            itemSummaryCache.onBookingChanged(booking);
+            log.info("New booking id {} has been saved.", booking.getId());
             return BookingMapper.mapToBookingOutgoingDto(booking);
         } catch (DataIntegrityViolationException e) {
             throw new NotSavedException("Booking was not saved.");
         }
     }
 
+    @Transactional
+    @Override
+    public List<BookingBatchResultDto> addAll(List<BookingIncomingDto> bookings, Long bookerId) {
+        User booker = userRepository.findById(bookerId).orElseThrow(() ->
+                new NotFoundException("User with id " + bookerId + " was not found."));
+
+        Set<Long> itemIds = bookings.stream()
+                .map(BookingIncomingDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<Booking> approvedBookings = findApprovedOverlapping(items.keySet(),
+                bookings.stream().map(BookingIncomingDto::getStart).filter(Objects::nonNull)
+                        .min(Comparator.naturalOrder()).orElse(null),
+                bookings.stream().map(BookingIncomingDto::getEnd).filter(Objects::nonNull)
+                        .max(Comparator.naturalOrder()).orElse(null));
+
+        List<BookingBatchResultDto> results = new ArrayList<>();
+        Map<Integer, Booking> created = new LinkedHashMap<>();
+
+        for (int i = 0; i < bookings.size(); i++) {
+            BookingIncomingDto bookingIncomingDto = bookings.get(i);
+            BookingBatchResultDto result = new BookingBatchResultDto(i, null, null);
+            results.add(result);
+            try {
+                Item item = items.get(bookingIncomingDto.getItemId());
+                if (item == null) {
+                    throw new NotFoundException("Item with id " + bookingIncomingDto.getItemId() + " was not found.");
+                }
+                checkBookable(item, bookingIncomingDto, bookerId);
+
+                Booking booking = BookingMapper.mapToBooking(bookingIncomingDto, item, booker);
+                checkBatchOverlap(booking, approvedBookings);
+                booking.setStatus(BookingStatus.WAITING);
+                created.put(i, booking);
+            } catch (NotFoundException | NotAvailableException | BookingOverlapException e) {
+                result.setError(e.getMessage());
+            }
+        }
+
+        try {
+            bookingRepository.saveAllAndFlush(created.values());
+        } catch (DataIntegrityViolationException e) {
+            throw new NotSavedException("Bookings were not saved.");
+        }
+
+        created.forEach((index, booking) -> {
+            bookingIntervalCache.onBookingChanged(booking);
+            itemSummaryCache.onBookingChanged(booking);
+            results.get(index).setBooking(BookingMapper.mapToBookingOutgoingDto(booking));
+        });
+        log.info("{} of {} bookings of booker id {} have been saved.", created.size(), bookings.size(), bookerId);
+        return results;
+    }
+
     @Transactional
     @Override
     public BookingOutgoingDto approve(Long bookingId, Boolean approved, Long userId) {
@@ -75,26 +148,187 @@ public class BookingServiceImpl implements BookingService {
 
         Item item = booking.getItem();
 
-        if (!item.getOwner().getId().equals(userId)) {
-            throw new NotFoundException("Item id " + item.getId() + " does not belong to user id " + userId);
-        }
+        checkAnswerable(booking, userId);
 
-        if (!booking.getStatus().equals(BookingStatus.WAITING)) {
-            throw new NotAvailableException("Item " + item.getId() + " is not waiting to be approved.");
+        if (approved) {
+            checkOverlap(item.getId(), booking.getStart(), booking.getEnd());
         }
 
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
 
         try {
-            bookingRepository.save(booking);
-            log.info("Booking id " + booking.getId() + " has been answered by owner id " + userId +
-                    ". Reply: " + approved);
+            bookingRepository.saveAndFlush(booking);
+            bookingIntervalCache.onBookingChanged(booking);
+            itemSummaryCache.onBookingChanged(booking);
+            log.info("Booking id {} has been answered by owner id {}. Reply: {}", booking.getId(), userId, approved);
             return BookingMapper.mapToBookingOutgoingDto(booking);
         } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw new BookingOverlapException("Item " + item.getId() + " is already booked for this period.");
+            }
             throw new NotSavedException("Booking was not approved.");
         }
     }
 
+    @Transactional
+    @Override
+    public List<BookingBatchResultDto> approveAll(List<Long> bookingIds, Boolean approved, Long userId) {
+        Map<Long, Booking> bookings = bookingRepository.findAllByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        List<Booking> approvedBookings = approved ? findApprovedOverlapping(
+                bookings.values().stream().map(booking -> booking.getItem().getId()).collect(Collectors.toSet()),
+                bookings.values().stream().map(Booking::getStart).min(Comparator.naturalOrder()).orElse(null),
+                bookings.values().stream().map(Booking::getEnd).max(Comparator.naturalOrder()).orElse(null))
+                : List.of();
+
+        List<BookingBatchResultDto> results = new ArrayList<>();
+        Map<Integer, Booking> answered = new LinkedHashMap<>();
+        Set<Long> answeredIds = new HashSet<>();
+
+        for (int i = 0; i < bookingIds.size(); i++) {
+            Long bookingId = bookingIds.get(i);
+            BookingBatchResultDto result = new BookingBatchResultDto(i, null, null);
+            results.add(result);
+            try {
+                Booking booking = bookings.get(bookingId);
+                if (booking == null) {
+                    throw new NotFoundException("Booking with id " + bookingId + " was not found.");
+                }
+                if (!answeredIds.add(bookingId)) {
+                    throw new NotAvailableException("Booking id " + bookingId + " is repeated in the batch.");
+                }
+                checkAnswerable(booking, userId);
+                if (approved) {
+                    checkBatchOverlap(booking, approvedBookings);
+                    checkBatchOverlap(booking, answered.values());
+                }
+                answered.put(i, booking);
+            } catch (NotFoundException | NotAvailableException | BookingOverlapException e) {
+                result.setError(e.getMessage());
+            }
+        }
+
+        answered.values().forEach(booking ->
+                booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED));
+
+        try {
+            bookingRepository.saveAllAndFlush(answered.values());
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw new BookingOverlapException("Some items are already booked for these periods.");
+            }
+            throw new NotSavedException("Bookings were not approved.");
+        }
+
+        answered.forEach((index, booking) -> {
+            bookingIntervalCache.onBookingChanged(booking);
+            itemSummaryCache.onBookingChanged(booking);
+            results.get(index).setBooking(BookingMapper.mapToBookingOutgoingDto(booking));
+        });
+        log.info("{} of {} bookings have been answered by owner id {}. Reply: {}",
+                answered.size(), bookingIds.size(), userId, approved);
+        return results;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Collection<BookingOutgoingDto> getAllByBookerIdBefore(Long bookerId, PageCursor cursor, int size) {
+        if (!userRepository.existsById(bookerId)) {
+            throw new NotFoundException("User with id " + bookerId + " was not found.");
+        }
+
+        Pageable pageable = PageRequest.of(0, size);
+
+        log.debug("Page of bookings of booker id {} has been gotten.", bookerId);
+        if (cursor == null) {
+            return BookingMapper.mapToBookingOutgoingDto(
+                    bookingRepository.findAllByBookerIdOrderByEndDescIdDesc(bookerId, pageable));
+        }
+        checkCursorKey(cursor);
+        return BookingMapper.mapToBookingOutgoingDto(
+                bookingRepository.findAllByBookerIdBefore(bookerId, cursor.getKey(), cursor.getId(), pageable));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Collection<BookingOutgoingDto> getAllByItemsOfUserBefore(Long userId, PageCursor cursor, int size) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("User with id " + userId + " was not found.");
+        }
+
+        Pageable pageable = PageRequest.of(0, size);
+
+        log.debug("Page of bookings for items of owner id {} has been gotten.", userId);
+        if (cursor == null) {
+            return BookingMapper.mapToBookingOutgoingDto(
+                    bookingRepository.findAllByItemOwnerIdOrderByEndDescIdDesc(userId, pageable));
+        }
+        checkCursorKey(cursor);
+        return BookingMapper.mapToBookingOutgoingDto(
+                bookingRepository.findAllByItemOwnerIdBefore(userId, cursor.getKey(), cursor.getId(), pageable));
+    }
+
+    private void checkCursorKey(PageCursor cursor) {
+        if (cursor.getKey() == null) {
+            throw new InvalidCursorException("Cursor of bookings must contain end time.");
+        }
+    }
+
+    private void checkBookable(Item item, BookingIncomingDto bookingIncomingDto, Long bookerId) {
+        if (!item.getAvailable()) {
+            throw new NotAvailableException("Item " + item.getId() + " is not available for booking");
+        }
+
+        if (item.getOwner().getId().equals(bookerId)) {
+            throw new NotFoundException("Item can not be booked by owner.");
+        }
+
+        if (!bookingIncomingDto.validate()) {
+            throw new NotAvailableException("End of booking must be after start.");
+        }
+    }
+
+    private void checkAnswerable(Booking booking, Long userId) {
+        Item item = booking.getItem();
+
+        if (!item.getOwner().getId().equals(userId)) {
+            throw new NotFoundException("Item id " + item.getId() + " does not belong to user id " + userId);
+        }
+
+        if (!booking.getStatus().equals(BookingStatus.WAITING)) {
+            throw new NotAvailableException("Item " + item.getId() + " is not waiting to be approved.");
+        }
+    }
+
+    private void checkBatchOverlap(Booking booking, Collection<Booking> others) {
+        for (Booking other : others) {
+            if (other.getItem().getId().equals(booking.getItem().getId())
+                    && other.getStart().isBefore(booking.getEnd())
+                    && other.getEnd().isAfter(booking.getStart())) {
+                throw new BookingOverlapException("Item " + booking.getItem().getId() +
+                        " is already booked for this period.");
+            }
+        }
+    }
+
+    private List<Booking> findApprovedOverlapping(Collection<Long> itemIds, LocalDateTime start, LocalDateTime end) {
+        if (itemIds.isEmpty() || start == null || end == null) {
+            return List.of();
+        }
+        return bookingRepository.findAllByItemIdInOverlapping(itemIds, BookingStatus.APPROVED, start, end);
+    }
+
+    private boolean isOverlapViolation(DataIntegrityViolationException e) {
+        return String.valueOf(e.getMostSpecificCause().getMessage()).contains(OVERLAP_CONSTRAINT);
+    }
+
+    private void checkOverlap(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (bookingRepository.existsByItemIdAndStatusAndStartIsBeforeAndEndIsAfter(
+                itemId, BookingStatus.APPROVED, end, start)) {
+            throw new BookingOverlapException("Item " + itemId + " is already booked for this period.");
+        }
+    }
+
     @Transactional(readOnly = true)
     @Override
     public BookingOutgoingDto getById(Long bookingId, Long userId) {
@@ -105,41 +339,51 @@ public class BookingServiceImpl implements BookingService {
             throw new NotFoundException("Item id " + booking.getItem().getId() + " does not belong to user id " + userId);
         }
 
-        log.info("Booking id " + bookingId + " has been gotten.");
+        log.debug("Booking id {} has been gotten.", bookingId);
         return BookingMapper.mapToBookingOutgoingDto(booking);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public String getVersionTag(Long bookingId, Long userId) {
+        return bookingRepository.findStateByIdAndUserId(bookingId, userId)
+                .map(state -> EntityTag.of("booking", bookingId,
+                        state.getVersion(), state.getItemVersion(), state.getBookerVersion()))
+                .orElse(null);
+    }
+
     @Transactional(readOnly = true)
     @Override
     public Collection<BookingOutgoingDto> getAllByBookerId(Long bookerId, BookingRequestState state, int from, int size) {
-        userRepository.findById(bookerId).orElseThrow(() ->
-                new NotFoundException("User with id " + bookerId + " was not found."));
+        if (!userRepository.existsById(bookerId)) {
+            throw new NotFoundException("User with id " + bookerId + " was not found.");
+        }
 
-        Pageable pageable = PageRequest.of(from / size, size);
+        Pageable pageable = OffsetPageRequest.of(from, size);
 
         switch (state) {
             case ALL:
-                log.info("All bookings of booker id " + bookerId + " has been gotten.");
-                return BookingMapper.mapToBookingOutgoingDto(bookingRepository.findAllByBookerIdOrderByEndDesc(bookerId, pageable));
+                log.debug("All bookings of booker id {} has been gotten.", bookerId);
+                return BookingMapper.mapToBookingOutgoingDto(bookingRepository.findAllByBookerIdOrderByEndDescIdDesc(bookerId, pageable));
             case CURRENT:
-                log.info("Current bookings of booker id " + bookerId + " has been gotten.");
+                log.debug("Current bookings of booker id {} has been gotten.", bookerId);
                 return BookingMapper.mapToBookingOutgoingDto(
                         bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartAsc(
                                 bookerId, LocalDateTime.now(), LocalDateTime.now(), pageable));
             case PAST:
-                log.info("Past bookings of booker id " + bookerId + " has been gotten.");
+                log.debug("Past bookings of booker id {} has been gotten.", bookerId);
                 return BookingMapper.mapToBookingOutgoingDto(
                         bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(bookerId, LocalDateTime.now(), pageable));
             case FUTURE:
-                log.info("Future bookings of booker id " + bookerId + " has been gotten.");
+                log.debug("Future bookings of booker id {} has been gotten.", bookerId);
                 return BookingMapper.mapToBookingOutgoingDto(
                         bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(bookerId, LocalDateTime.now(), pageable));
             case WAITING:
-                log.info("Waiting bookings of booker id " + bookerId + " has been gotten.");
+                log.debug("Waiting bookings of booker id {} has been gotten.", bookerId);
                 return BookingMapper.mapToBookingOutgoingDto(
                         bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(bookerId, BookingStatus.WAITING, pageable));
             case REJECTED:
-                log.info("Rejected bookings of booker id " + bookerId + " has been gotten.");
+                log.debug("Rejected bookings of booker id {} has been gotten.", bookerId);
                 return BookingMapper.mapToBookingOutgoingDto(
                         bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(bookerId, BookingStatus.REJECTED, pageable));
             default:
@@ -150,34 +394,35 @@ public class BookingServiceImpl implements BookingService {
     @Transactional(readOnly = true)
     @Override
     public Collection<BookingOutgoingDto> getAllByItemsOfUser(Long userId, BookingRequestState state, int from, int size) {
-        userRepository.findById(userId).orElseThrow(() ->
-                new NotFoundException("User with id " + userId + " was not found."));
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("User with id " + userId + " was not found.");
+        }
 
-        Pageable pageable = PageRequest.of(from / size, size);
+        Pageable pageable = OffsetPageRequest.of(from, size);
 
         switch (state) {
             case ALL:
-                log.info("All bookings for items of owner id " + userId + " has been gotten.");
-                return BookingMapper.mapToBookingOutgoingDto(bookingRepository.findAllByItemOwnerIdOrderByEndDesc(userId, pageable));
+                log.debug("All bookings for items of owner id {} has been gotten.", userId);
+                return BookingMapper.mapToBookingOutgoingDto(bookingRepository.findAllByItemOwnerIdOrderByEndDescIdDesc(userId, pageable));
             case CURRENT:
-                log.info("Current bookings for items of owner id " + userId + " has been gotten.");
+                log.debug("Current bookings for items of owner id {} has been gotten.", userId);
                 return BookingMapper.mapToBookingOutgoingDto(
                         bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
                                 userId, LocalDateTime.now(), LocalDateTime.now(), pageable));
             case PAST:
-                log.info("Past bookings for items of owner id " + userId + " has been gotten.");
+                log.debug("Past bookings for items of owner id {} has been gotten.", userId);
                 return BookingMapper.mapToBookingOutgoingDto(
                         bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(userId, LocalDateTime.now(), pageable));
             case FUTURE:
-                log.info("Future bookings for items of owner id " + userId + " has been gotten.");
+                log.debug("Future bookings for items of owner id {} has been gotten.", userId);
                 return BookingMapper.mapToBookingOutgoingDto(
                         bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(userId, LocalDateTime.now(), pageable));
             case WAITING:
-                log.info("Waiting bookings for items of owner id " + userId + " has been gotten.");
+                log.debug("Waiting bookings for items of owner id {} has been gotten.", userId);
                 return BookingMapper.mapToBookingOutgoingDto(
                         bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING, pageable));
             case REJECTED:
-                log.info("Rejected bookings for items of owner id " + userId + " has been gotten.");
+                log.debug("Rejected bookings for items of owner id {} has been gotten.", userId);
                 return BookingMapper.mapToBookingOutgoingDto(
                         bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED, pageable));
             default:
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.exception;
+
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+public class BookingOverlapException extends RuntimeException {
+    public BookingOverlapException(String message) {
+        super(message);
+    }
+}
@@ -1,14 +1,27 @@
 package ru.practicum.shareit.item.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
+import ru.practicum.shareit.item.dto.ItemImportRecordDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.PageCursor;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.Collection;
 
 @RestController
@@ -19,20 +32,32 @@ public class ItemController {
     private static final String REQUEST_HEADER = "X-Sharer-User-Id";
 
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public ItemDto add(@RequestHeader(REQUEST_HEADER) Long userId, @RequestBody ItemDto itemDto) {
 
-        log.info("POST/addItem");
+        log.debug("POST/addItem");
         return itemService.add(itemDto, userId);
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ItemImportResultDto importItems(@RequestHeader(REQUEST_HEADER) Long userId,
+                                           InputStream body) throws IOException {
+        log.debug("POST/import-Items");
+        try (MappingIterator<ItemImportRecordDto> records = objectMapper
+                .readerFor(ItemImportRecordDto.class)
+                .readValues(body)) {
+            return itemService.importItems(userId, records);
+        }
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto update(@PathVariable Long itemId,
                           @RequestHeader(REQUEST_HEADER) Long userId,
                           @RequestBody ItemDto itemDto) {
-        log.info("PATCH/updateItem");
+        log.debug("PATCH/updateItem");
         return itemService.update(itemId, userId, itemDto);
     }
 
@@ -40,20 +65,33 @@ public class ItemController {
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable Long itemId) {
         itemService.delete(itemId);
-        log.info("DELETE/itemId");
+        log.debug("DELETE/itemId");
     }
 
     @GetMapping
-    public Collection<ItemDtoWithBookings> getAllByUserId(@RequestHeader(REQUEST_HEADER) Long userId,
-                                                          @RequestParam(required = false, defaultValue = "0") int from,
-                                                          @RequestParam(required = false, defaultValue = "10") int size) {
-        log.info("GET/get-All-Items-By-UserId");
-        return itemService.getAllByUserId(userId, from, size);
+    public ResponseEntity<Collection<ItemDtoWithBookings>> getAllByUserId(
+            @RequestHeader(REQUEST_HEADER) Long userId,
+            @RequestParam(required = false, defaultValue = "0") int from,
+            @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        log.debug("GET/get-All-Items-By-UserId");
+        if (cursor == null) {
+            return ResponseEntity.ok(itemService.getAllByUserId(userId, from, size));
+        }
+        PageCursor after = PageCursor.decode(cursor);
+        return PageCursor.toResponse(
+                itemService.getAllByUserIdAfter(userId, after == null ? null : after.getId(), size),
+                size,
+                item -> new PageCursor(null, item.getId()));
     }
 
     @GetMapping("/{itemId}")
-    public ItemDtoWithBookings getById(@PathVariable Long itemId, @RequestHeader(REQUEST_HEADER) Long userId) {
-        log.info("GET/get-Item-By-Id");
+    public ItemDtoWithBookings getById(@PathVariable Long itemId, @RequestHeader(REQUEST_HEADER) Long userId,
+                                       WebRequest request) {
+        log.debug("GET/get-Item-By-Id");
+        if (request.checkNotModified(itemService.getVersionTag(itemId, userId))) {
+            return null;
+        }
         return itemService.getById(itemId, userId);
     }
 
@@ -61,7 +99,7 @@ public class ItemController {
     public Collection<ItemDto> search(String text,
                                       @RequestParam(required = false, defaultValue = "0") int from,
                                       @RequestParam(required = false, defaultValue = "10") int size) {
-        log.info("GET/searchItem");
+        log.debug("GET/searchItem");
         return itemService.search(text, from, size);
     }
 
@@ -69,7 +107,16 @@ public class ItemController {
     public CommentDto addComment(@PathVariable Long itemId,
                                  @RequestHeader(REQUEST_HEADER) Long userId,
                                  @RequestBody CommentDto commentDto) {
-        log.info("POST/addComment");
+        log.debug("POST/addComment");
         return itemService.addComment(userId, itemId, commentDto);
     }
+
+    @GetMapping("/{itemId}/availability")
+    public Collection<AvailabilitySlotDto> getAvailability(
+            @PathVariable Long itemId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.debug("GET/get-Item-Availability");
+        return itemService.getAvailability(itemId, from, to);
+    }
 }
@@ -1,15 +1,13 @@
 package ru.practicum.shareit.item.mapper;
 
 import lombok.experimental.UtilityClass;
-import ru.practicum.shareit.booking.mapper.BookingMapper;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.BookingDtoForOwner;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
-import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 
 @UtilityClass
@@ -37,24 +35,20 @@ public class ItemMapper {
     }
 
     public static ItemDtoWithBookings mapToItemDtoForOwner(Item item,
-                                                           Booking lastBooking,
-                                                           Booking nextBooking,
-                                                           Collection<Comment> comments) {
+                                                           BookingDtoForOwner lastBooking,
+                                                           BookingDtoForOwner nextBooking,
+                                                           List<CommentDto> comments) {
         ItemDtoWithBookings itemDtoWithBookings = new ItemDtoWithBookings();
         itemDtoWithBookings.setId(item.getId());
         itemDtoWithBookings.setName(item.getName());
         itemDtoWithBookings.setDescription(item.getDescription());
         itemDtoWithBookings.setAvailable(item.getAvailable());
-        if (lastBooking != null) {
-            itemDtoWithBookings.setLastBooking(BookingMapper.mapToBookingDtoForOwner(lastBooking));
-        }
-        if (nextBooking != null) {
-            itemDtoWithBookings.setNextBooking(BookingMapper.mapToBookingDtoForOwner(nextBooking));
-        }
+        itemDtoWithBookings.setLastBooking(lastBooking);
+        itemDtoWithBookings.setNextBooking(nextBooking);
         if (item.getRequestId() != null) {
             itemDtoWithBookings.setRequestId(item.getRequestId());
         }
-        itemDtoWithBookings.setComments(CommentMapper.mapToCommentDto(comments));
+        itemDtoWithBookings.setComments(comments);
 
         return itemDtoWithBookings;
     }
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.*;
@@ -8,6 +10,8 @@ import java.util.Objects;
 
 @Entity
 @Table(name = "items")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @ToString
@@ -16,7 +20,8 @@ import java.util.Objects;
 public class Item {
     @Id
     @Column(name = "item_id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "item_name", nullable = false)
@@ -36,6 +41,10 @@ public class Item {
     @Column(name = "request_id")
     private Long requestId;
 
+    @Version
+    @Column(name = "item_version", nullable = false)
+    private Long version;
+
     @ru.practicum.shareit.util.Generated
     @Override
     public boolean equals(Object o) {
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.item.dto.CommentDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class ItemSummary {
+    private final ItemSummaryBooking lastBooking;
+    private final ItemSummaryBooking nextBooking;
+    private final List<CommentDto> comments;
+    private final String version;
+
+    public boolean isCurrent(LocalDateTime now) {
+        return nextBooking == null || nextBooking.getStart().isAfter(now);
+    }
+}
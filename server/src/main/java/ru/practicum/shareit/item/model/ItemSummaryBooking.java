@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class ItemSummaryBooking {
+    private final Long bookingId;
+    private final Long bookerId;
+    private final LocalDateTime start;
+}
@@ -2,12 +2,19 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findAllByItemId(Long itemId, Pageable pageable);
+
+    @Query("select c from Comment c " +
+            "join fetch c.author " +
+            "where c.item.id in ?1")
+    List<Comment> findAllByItemIdIn(Collection<Long> itemIds);
 }
@@ -6,16 +6,22 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    List<Item> findAllByOwnerId(long userId, Pageable pageable);
+    List<Item> findAllByOwnerIdOrderByIdAsc(long userId, Pageable pageable);
+
+    List<Item> findAllByOwnerIdAndIdGreaterThanOrderByIdAsc(long userId, long id, Pageable pageable);
 
     @Query("select i from Item i " +
             "where i.available = true " +
             "and (upper(i.name) like upper(concat('%', ?1, '%')) " +
-            "or upper(i.description) like upper(concat('%', ?1, '%')))")
+            "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
+            "order by case when upper(i.name) like upper(concat('%', ?1, '%')) then 0 else 1 end, i.id")
     List<Item> search(String text, Pageable pageable);
+
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
 }
@@ -1,25 +1,38 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
+import ru.practicum.shareit.item.dto.ItemImportRecordDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.Iterator;
 
 public interface ItemService {
     ItemDto add(ItemDto item, Long userId);
 
+    ItemImportResultDto importItems(Long userId, Iterator<ItemImportRecordDto> records);
+
     ItemDto update(Long itemId, Long userId, ItemDto item);
 
     void delete(Long itemId);
 
     Collection<ItemDtoWithBookings> getAllByUserId(Long userId, int from, int size);
 
+    Collection<ItemDtoWithBookings> getAllByUserIdAfter(Long userId, Long afterId, int size);
+
     ItemDto getByOwnerIdAndItemId(Long userId, Long itemId);
 
     ItemDtoWithBookings getById(Long itemId, Long userId);
 
+    String getVersionTag(Long itemId, Long userId);
+
     Collection<ItemDto> search(String text, int from, int size);
 
     CommentDto addComment(Long userId, Long itemId, CommentDto commentDto);
+
+    Collection<AvailabilitySlotDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 }
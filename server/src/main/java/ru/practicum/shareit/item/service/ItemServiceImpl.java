@@ -1,47 +1,72 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.BookingStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.BookingInterval;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalCache;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.NotOwnerException;
 import ru.practicum.shareit.exception.NotSavedException;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportRecordDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.EntityTag;
+import ru.practicum.shareit.util.OffsetPageRequest;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("shareit.service")
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 @Slf4j
 public class ItemServiceImpl implements ItemService {
+    private static final int DEFAULT_AVAILABILITY_DAYS = 30;
+    private static final int IMPORT_CHUNK_SIZE = 500;
+    private static final int MAX_REPORTED_IMPORT_ERRORS = 100;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final RequestRepository requestRepository;
+    private final BookingIntervalCache bookingIntervalCache;
+    private final ItemSummaryCache itemSummaryCache;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional
     @Override
@@ -53,19 +78,45 @@ public class ItemServiceImpl implements ItemService {
         item.setOwner(owner);
 
         if (itemDto.getRequestId() != null) {
-            requestRepository.findById(itemDto.getRequestId()).orElseThrow(() ->
-                    new NotFoundException("Request id " + itemDto.getRequestId() + " was not found."));
+            if (!requestRepository.existsById(itemDto.getRequestId())) {
+                throw new NotFoundException("Request id " + itemDto.getRequestId() + " was not found.");
+            }
         }
 
         try {
             itemRepository.save(item);
-            log.info("New item id " + item.getId() + " has been saved.");
+            log.info("New item id {} has been saved.", item.getId());
             return ItemMapper.mapToItemDto(item);
         } catch (DataIntegrityViolationException e) {
             throw new NotSavedException("Item was not saved " + itemDto);
         }
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Override
+    public ItemImportResultDto importItems(Long userId, Iterator<ItemImportRecordDto> records) {
+        User owner = userRepository.findById(userId).orElseThrow(() ->
+                new NotFoundException("User id " + userId + " was not found."));
+
+        ItemImportResultDto result = new ItemImportResultDto();
+        List<ItemImportRecordDto> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+
+        while (records.hasNext()) {
+            chunk.add(records.next());
+            if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                importChunk(owner, chunk, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(owner, chunk, result);
+        }
+
+        log.info("{} items of user id {} have been imported, {} lines failed.",
+                result.getImported(), userId, result.getFailed());
+        return result;
+    }
+
     @Transactional
     @Override
     public ItemDto update(Long itemId, Long userId, ItemDto itemDto) {
@@ -89,7 +140,7 @@ public class ItemServiceImpl implements ItemService {
         }
 
         try {
-            log.info("Existed item id " + item.getId() + " has been updated.");
+            log.info("Existed item id {} has been updated.", item.getId());
             return ItemMapper.mapToItemDto(itemRepository.save(item));
         } catch (DataIntegrityViolationException e) {
             throw new NotSavedException("Item was not update " + itemDto);
@@ -100,18 +151,26 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public void delete(Long itemId) {
         itemRepository.deleteById(itemId);
-        log.info("Existed item id " + itemId + " has been deleted.");
+        bookingIntervalCache.evict(itemId);
+        itemSummaryCache.evict(itemId);
+        log.info("Existed item id {} has been deleted.", itemId);
     }
 
     @Transactional(readOnly = true)
     @Override
     public Collection<ItemDtoWithBookings> getAllByUserId(Long userId, int from, int size) {
-        Collection<Item> items = itemRepository.findAllByOwnerId(userId, PageRequest.of(from, size));
-        log.info("List of all items of user id " + userId + " has been gotten.");
-        return items.stream()
-                .map(item -> getById(item.getId(), userId))
-                .sorted(Comparator.comparing(ItemDtoWithBookings::getId))
-                .collect(Collectors.toList());
+        Collection<Item> items = itemRepository.findAllByOwnerIdOrderByIdAsc(userId, OffsetPageRequest.of(from, size));
+        log.debug("List of all items of user id {} has been gotten.", userId);
+        return mapToOwnerView(items);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Collection<ItemDtoWithBookings> getAllByUserIdAfter(Long userId, Long afterId, int size) {
+        Collection<Item> items = itemRepository.findAllByOwnerIdAndIdGreaterThanOrderByIdAsc(
+                userId, afterId == null ? 0 : afterId, PageRequest.of(0, size));
+        log.debug("Page of items of user id {} after item id {} has been gotten.", userId, afterId);
+        return mapToOwnerView(items);
     }
 
     @Transactional(readOnly = true)
@@ -123,7 +182,7 @@ public class ItemServiceImpl implements ItemService {
         if (!item.getOwner().getId().equals(userId)) {
             throw new NotOwnerException("Item id " + itemId + " does not belong to user id " + userId);
         }
-        log.info("Item id " + itemId + " of user id " + userId + " has been gotten.");
+        log.debug("Item id {} of user id {} has been gotten.", itemId, userId);
         return ItemMapper.mapToItemDto(item);
     }
 
@@ -133,30 +192,34 @@ public class ItemServiceImpl implements ItemService {
         Item item = itemRepository.findById(itemId).orElseThrow(() ->
                 new NotFoundException("Item with id " + itemId + " was not found."));
 
-        Collection<Comment> comments = commentRepository.findAllByItemId(itemId, PageRequest.of(0, 10));
+        ItemSummary summary = itemSummaryCache.getSummary(itemId);
 
-        Booking lastBooking = null;
-        Booking nextBooking = null;
+        log.debug("Item id {} of user id {} has been gotten.", itemId, userId);
+        return mapToItemView(item, summary, item.getOwner().getId().equals(userId));
+    }
 
-        if (item.getOwner().getId().equals(userId)) {
-            lastBooking = bookingRepository.findFirstByItemIdAndStatusAndStartIsBeforeOrderByStartDesc(
-                    itemId, BookingStatus.APPROVED, LocalDateTime.now());
-            nextBooking = bookingRepository.findFirstByItemIdAndStatusAndStartIsAfterOrderByStartAsc(
-                    itemId, BookingStatus.APPROVED, LocalDateTime.now());
+    @Transactional(readOnly = true)
+    @Override
+    public String getVersionTag(Long itemId, Long userId) {
+        Item item = itemRepository.findById(itemId).orElse(null);
+        if (item == null) {
+            return null;
         }
-        log.info("Item id " + itemId + " of user id " + userId + " has been gotten.");
-        return ItemMapper.mapToItemDtoForOwner(item, lastBooking, nextBooking, comments);
+
+        ItemSummary summary = itemSummaryCache.getSummary(itemId);
+        return EntityTag.of("item", itemId, item.getVersion(), summary.getVersion(),
+                item.getOwner().getId().equals(userId));
     }
 
     @Transactional(readOnly = true)
     @Override
     public Collection<ItemDto> search(String text, int from, int size) {
         if (text.isBlank()) {
-            log.info("Search result is empty.");
+            log.debug("Search result is empty.");
             return new ArrayList<>();
         } else {
-            log.info("Search result has been gotten.");
-            return ItemMapper.mapToItemDto(itemRepository.search(text, PageRequest.of(from, size)));
+            log.debug("Search result has been gotten.");
+            return ItemMapper.mapToItemDto(itemRepository.search(text, OffsetPageRequest.of(from, size)));
         }
     }
 
@@ -181,13 +244,142 @@ public class ItemServiceImpl implements ItemService {
         comment.setItem(item);
 
         try {
-            log.info("New comment id " + comment.getId() +
-                    " for item id " + itemId +
-                    " from user id " + userId + " has been added");
-            return CommentMapper.mapToCommentDto(commentRepository.save(comment));
+            log.info("New comment id {} for item id {} from user id {} has been added",
+                    comment.getId(), itemId, userId);
+            Comment savedComment = commentRepository.save(comment);
+            itemSummaryCache.onCommentAdded(savedComment);
+            return CommentMapper.mapToCommentDto(savedComment);
         } catch (DataIntegrityViolationException e) {
             throw new NotSavedException("Comment was not created.");
         }
     }
-}
 
+    @Override
+    public Collection<AvailabilitySlotDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Item with id " + itemId + " was not found.");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = from == null || from.isBefore(now) ? now : from;
+        LocalDateTime end = to == null ? start.plusDays(DEFAULT_AVAILABILITY_DAYS) : to;
+
+        if (!end.isAfter(start)) {
+            throw new NotAvailableException("End of period must be after start.");
+        }
+
+        Collection<AvailabilitySlotDto> slots = new ArrayList<>();
+        LocalDateTime cursor = start;
+
+        for (BookingInterval interval : bookingIntervalCache.getIntervals(itemId)) {
+            if (!interval.getStart().isBefore(end)) {
+                break;
+            }
+            if (!interval.getEnd().isAfter(cursor)) {
+                continue;
+            }
+            if (interval.getStart().isAfter(cursor)) {
+                slots.add(new AvailabilitySlotDto(cursor, interval.getStart()));
+            }
+            cursor = interval.getEnd();
+        }
+
+        if (cursor.isBefore(end)) {
+            slots.add(new AvailabilitySlotDto(cursor, end));
+        }
+
+        log.debug("Availability of item id {} has been gotten.", itemId);
+        return slots;
+    }
+
+    private void importChunk(User owner, List<ItemImportRecordDto> chunk, ItemImportResultDto result) {
+        Set<Long> requestIds = chunk.stream()
+                .filter(record -> record.getError() == null && record.getItem() != null
+                        && record.getItem().getRequestId() != null)
+                .map(record -> record.getItem().getRequestId())
+                .collect(Collectors.toSet());
+        Set<Long> existingRequestIds = requestIds.isEmpty() ? Set.of() : requestRepository.findAllById(requestIds).stream()
+                .map(Request::getId)
+                .collect(Collectors.toSet());
+
+        List<Item> items = new ArrayList<>();
+        List<ItemImportRecordDto> valid = new ArrayList<>();
+
+        for (ItemImportRecordDto record : chunk) {
+            if (record.getError() != null) {
+                reportImportError(result, record.getLine(), record.getError());
+            } else if (record.getItem() == null) {
+                reportImportError(result, record.getLine(), "Item is missing.");
+            } else if (record.getItem().getRequestId() != null
+                    && !existingRequestIds.contains(record.getItem().getRequestId())) {
+                reportImportError(result, record.getLine(),
+                        "Request id " + record.getItem().getRequestId() + " was not found.");
+            } else {
+                items.add(mapToImportedItem(owner, record));
+                valid.add(record);
+            }
+        }
+
+        if (items.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> itemRepository.saveAllAndFlush(items));
+            result.setImported(result.getImported() + items.size());
+        } catch (DataAccessException e) {
+            valid.forEach(record -> importRecord(owner, record, result));
+        }
+    }
+
+    /**
+     * Saves one line on its own after its chunk failed, so only the offending lines are reported.
+     */
+    private void importRecord(User owner, ItemImportRecordDto record, ItemImportResultDto result) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    itemRepository.saveAndFlush(mapToImportedItem(owner, record)));
+            result.setImported(result.getImported() + 1);
+        } catch (DataAccessException e) {
+            reportImportError(result, record.getLine(), "Item was not saved.");
+        }
+    }
+
+    private Item mapToImportedItem(User owner, ItemImportRecordDto record) {
+        Item item = ItemMapper.mapToItem(record.getItem());
+        // an import always creates items, an id sent with the line is ignored
+        item.setId(null);
+        item.setOwner(owner);
+        return item;
+    }
+
+    private void reportImportError(ItemImportResultDto result, long line, String error) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_IMPORT_ERRORS) {
+            result.getErrors().add(new ItemImportErrorDto(line, error));
+        }
+    }
+
+    private Collection<ItemDtoWithBookings> mapToOwnerView(Collection<Item> items) {
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toSet());
+        Map<Long, ItemSummary> summaries = itemSummaryCache.getSummaries(itemIds);
+
+        return items.stream()
+                .map(item -> mapToItemView(item, summaries.get(item.getId()), true))
+                .sorted(Comparator.comparing(ItemDtoWithBookings::getId))
+                .collect(Collectors.toList());
+    }
+
+    private ItemDtoWithBookings mapToItemView(Item item, ItemSummary summary, boolean owner) {
+        return ItemMapper.mapToItemDtoForOwner(
+                item,
+                owner ? BookingMapper.mapToBookingDtoForOwner(summary.getLastBooking()) : null,
+                owner ? BookingMapper.mapToBookingDtoForOwner(summary.getNextBooking()) : null,
+                summary.getComments());
+    }
+}
@@ -0,0 +1,216 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.ItemSummary;
+import ru.practicum.shareit.item.model.ItemSummaryBooking;
+import ru.practicum.shareit.item.repository.CommentRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Per-item read model with the last started and the next approved booking and the most recent comments.
+ * Summaries are loaded on first access, reloaded once their next booking has started, and otherwise kept
+ * current by {@link #onBookingChanged(Booking)} and {@link #onCommentAdded(Comment)}, which are applied
+ * only after the surrounding transaction commits. Every summary that differs from the one it replaces gets a
+ * new {@link ItemSummary#getVersion() version}, which item views use as their entity tag. At most {@link #MAX_SUMMARIES} summaries are kept; the
+ * projection lives in this JVM only and is not invalidated by changes made through other server instances.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemSummaryCache {
+    public static final int RECENT_COMMENTS = 10;
+    public static final int MAX_SUMMARIES = 10_000;
+
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final Cache<Long, ItemSummary> summaries = Caffeine.newBuilder()
+            .maximumSize(MAX_SUMMARIES)
+            .build();
+    private final AtomicLong changes = new AtomicLong();
+    private final AtomicLong versions = new AtomicLong();
+    private final String instance = UUID.randomUUID().toString();
+
+    public ItemSummary getSummary(Long itemId) {
+        return getSummaries(List.of(itemId)).get(itemId);
+    }
+
+    public Map<Long, ItemSummary> getSummaries(Collection<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemSummary> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+
+        for (Long itemId : itemIds) {
+            ItemSummary summary = summaries.getIfPresent(itemId);
+            if (summary != null && summary.isCurrent(now)) {
+                result.put(itemId, summary);
+            } else {
+                missing.add(itemId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long seen = changes.get();
+            Map<Long, ItemSummary> loaded = load(missing, now);
+            summaries.putAll(loaded);
+            if (changes.get() != seen) {
+                // a change committed while loading may be missing from the loaded summaries
+                summaries.invalidateAll(loaded.keySet());
+            }
+            result.putAll(loaded);
+        }
+        return result;
+    }
+
+    public void onBookingChanged(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        ItemSummaryBooking summaryBooking = new ItemSummaryBooking(
+                booking.getId(), booking.getBooker().getId(), booking.getStart());
+        boolean approved = booking.getStatus() == BookingStatus.APPROVED;
+
+        afterCommit(() -> {
+            changes.incrementAndGet();
+            summaries.asMap().computeIfPresent(itemId, (id, summary) ->
+                    withBooking(summary, summaryBooking, approved, LocalDateTime.now()));
+        });
+    }
+
+    public void onCommentAdded(Comment comment) {
+        Long itemId = comment.getItem().getId();
+        CommentDto commentDto = CommentMapper.mapToCommentDto(comment);
+
+        afterCommit(() -> {
+            changes.incrementAndGet();
+            summaries.asMap().computeIfPresent(itemId, (id, summary) -> withComment(summary, commentDto));
+        });
+    }
+
+    public void evict(Long itemId) {
+        afterCommit(() -> {
+            changes.incrementAndGet();
+            summaries.invalidate(itemId);
+        });
+    }
+
+    /**
+     * Drops the summaries that show a booking or a comment of the user, after a rename or a delete.
+     */
+    public void evictUser(Long userId, String userName) {
+        afterCommit(() -> {
+            changes.incrementAndGet();
+            summaries.asMap().values().removeIf(summary -> mentionsUser(summary, userId, userName));
+        });
+    }
+
+    private Map<Long, ItemSummary> load(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemSummaryBooking> lastBookings = new HashMap<>();
+        Map<Long, ItemSummaryBooking> nextBookings = new HashMap<>();
+        for (BookingRepository.AdjacentBooking booking : bookingRepository.findLastAndNextByItemIdIn(
+                itemIds, BookingStatus.APPROVED, now)) {
+            ItemSummaryBooking summaryBooking = new ItemSummaryBooking(
+                    booking.getId(), booking.getBookerId(), booking.getBookingStart());
+            (booking.getPast() ? lastBookings : nextBookings).put(booking.getItemId(), summaryBooking);
+        }
+
+        Map<Long, List<Comment>> comments = commentRepository.findAllByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+
+        Map<Long, ItemSummary> loaded = new HashMap<>();
+        for (Long itemId : itemIds) {
+            List<CommentDto> recentComments = comments.getOrDefault(itemId, List.of()).stream()
+                    .sorted(Comparator.comparing(Comment::getId).reversed())
+                    .limit(RECENT_COMMENTS)
+                    .sorted(Comparator.comparing(Comment::getId))
+                    .map(CommentMapper::mapToCommentDto)
+                    .collect(Collectors.toUnmodifiableList());
+            loaded.put(itemId, new ItemSummary(
+                    lastBookings.get(itemId), nextBookings.get(itemId), recentComments, nextVersion()));
+        }
+        return loaded;
+    }
+
+    private ItemSummary withBooking(ItemSummary summary, ItemSummaryBooking booking,
+                                    boolean approved, LocalDateTime now) {
+        ItemSummaryBooking last = summary.getLastBooking();
+        ItemSummaryBooking next = summary.getNextBooking();
+        boolean known = isSameBooking(last, booking) || isSameBooking(next, booking);
+
+        if (!approved) {
+            return known ? null : summary;
+        }
+        if (booking.getStart().isBefore(now)) {
+            return last == null || booking.getStart().isAfter(last.getStart())
+                    ? new ItemSummary(booking, next, summary.getComments(), nextVersion())
+                    : summary;
+        }
+        if (booking.getStart().isAfter(now)) {
+            return next == null || booking.getStart().isBefore(next.getStart())
+                    ? new ItemSummary(last, booking, summary.getComments(), nextVersion())
+                    : summary;
+        }
+        return null;
+    }
+
+    private ItemSummary withComment(ItemSummary summary, CommentDto comment) {
+        List<CommentDto> comments = new ArrayList<>(summary.getComments());
+        if (comments.stream().anyMatch(existing -> existing.getId().equals(comment.getId()))) {
+            return summary;
+        }
+        comments.add(comment);
+        if (comments.size() > RECENT_COMMENTS) {
+            comments.remove(0);
+        }
+        return new ItemSummary(
+                summary.getLastBooking(), summary.getNextBooking(), List.copyOf(comments), nextVersion());
+    }
+
+    private String nextVersion() {
+        return instance + "-" + versions.incrementAndGet();
+    }
+
+    private static boolean mentionsUser(ItemSummary summary, Long userId, String userName) {
+        return isBookedBy(summary.getLastBooking(), userId)
+                || isBookedBy(summary.getNextBooking(), userId)
+                || summary.getComments().stream().anyMatch(comment -> userName.equals(comment.getAuthorName()));
+    }
+
+    private static boolean isBookedBy(ItemSummaryBooking booking, Long userId) {
+        return booking != null && booking.getBookerId().equals(userId);
+    }
+
+    private static boolean isSameBooking(ItemSummaryBooking summaryBooking, ItemSummaryBooking booking) {
+        return summaryBooking != null && summaryBooking.getBookingId().equals(booking.getBookingId());
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
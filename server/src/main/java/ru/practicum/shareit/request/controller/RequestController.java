@@ -3,9 +3,12 @@ package ru.practicum.shareit.request.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.service.RequestService;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.util.Collection;
 
@@ -21,34 +24,46 @@ public class RequestController {
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public RequestDto add(@RequestHeader(REQUEST_HEADER) Long userId, @RequestBody RequestDto requestDto) {
-        log.info("POST/addRequest");
+        log.debug("POST/addRequest");
         return requestService.add(requestDto, userId);
     }
 
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable long requestId, @RequestHeader(REQUEST_HEADER) Long userId) {
-        log.info("DELETE/requestId");
+        log.debug("DELETE/requestId");
         requestService.delete(requestId, userId);
     }
 
     @GetMapping
     public Collection<RequestDto> getRequestsOfUser(@RequestHeader(REQUEST_HEADER) Long userId) {
-        log.info("GET/getRequestsOfUser");
+        log.debug("GET/getRequestsOfUser");
         return requestService.getRequestsOfUser(userId);
     }
 
     @GetMapping("/all")
-    public Collection<RequestDto> getAll(@RequestHeader(REQUEST_HEADER) Long userId,
-                                         @RequestParam(value = "from", required = false, defaultValue = "0") int from,
-                                         @RequestParam(value = "size", required = false, defaultValue = "10") int size) {
-        log.info("GET/get-All-Requests");
-        return requestService.getAll(userId, from, size);
+    public ResponseEntity<Collection<RequestDto>> getAll(
+            @RequestHeader(REQUEST_HEADER) Long userId,
+            @RequestParam(value = "from", required = false, defaultValue = "0") int from,
+            @RequestParam(value = "size", required = false, defaultValue = "10") int size,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        log.debug("GET/get-All-Requests");
+        if (cursor == null) {
+            return ResponseEntity.ok(requestService.getAll(userId, from, size));
+        }
+        return PageCursor.toResponse(
+                requestService.getAllBefore(userId, PageCursor.decode(cursor), size),
+                size,
+                request -> new PageCursor(request.getCreated(), request.getId()));
     }
 
     @GetMapping("/{requestId}")
-    public RequestDto getById(@RequestHeader(REQUEST_HEADER) Long userId, @PathVariable Long requestId) {
-        log.info("GET/get-Request-By-Id");
+    public RequestDto getById(@RequestHeader(REQUEST_HEADER) Long userId, @PathVariable Long requestId,
+                              WebRequest request) {
+        log.debug("GET/get-Request-By-Id");
+        if (request.checkNotModified(requestService.getVersionTag(userId, requestId))) {
+            return null;
+        }
         return requestService.getById(userId, requestId);
     }
 }
@@ -2,19 +2,26 @@ package ru.practicum.shareit.request.mapper;
 
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.model.Request;
 
+import java.util.List;
+
 @UtilityClass
 public class RequestMapper {
 
     public static RequestDto mapToRequestDto(Request request) {
+        return mapToRequestDto(request, request.getItems());
+    }
+
+    public static RequestDto mapToRequestDto(Request request, List<Item> items) {
         RequestDto requestDto = new RequestDto();
         requestDto.setId(request.getId());
         requestDto.setCreated(request.getCreated());
         requestDto.setDescription(request.getDescription());
         requestDto.setRequesterId(request.getRequester().getId());
-        requestDto.setItems(ItemMapper.mapToItemDto(request.getItems()));
+        requestDto.setItems(ItemMapper.mapToItemDto(items));
         return requestDto;
     }
 
@@ -19,7 +19,8 @@ import java.util.List;
 public class Request {
     @Id
     @Column(name = "request_id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "request_description")
@@ -37,4 +38,8 @@ public class Request {
     @JoinColumn(name = "request_id")
     @ToString.Exclude
     private List<Item> items = new ArrayList<>();
+
+    @Version
+    @Column(name = "request_version", nullable = false)
+    private Long version;
 }
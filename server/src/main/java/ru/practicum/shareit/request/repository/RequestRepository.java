@@ -1,15 +1,50 @@
 package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.Request;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RequestRepository extends JpaRepository<Request, Long> {
-    List<Request> findAllByRequesterIdNotOrderByCreatedDesc(Long userId, Pageable pageable);
+    @EntityGraph(attributePaths = "requester")
+    @Query("select r from Request r " +
+            "where r.requester.id <> ?1 " +
+            "order by r.created desc, r.id desc")
+    List<Request> findAllByRequesterIdNotOrderByCreatedDescIdDesc(Long userId, Pageable pageable);
 
+    @EntityGraph(attributePaths = "requester")
+    @Query("select r from Request r " +
+            "where r.requester.id <> ?1 " +
+            "and (r.created < ?2 or (r.created = ?2 and r.id < ?3)) " +
+            "order by r.created desc, r.id desc")
+    List<Request> findAllByRequesterIdNotBefore(Long userId, LocalDateTime created, Long id, Pageable pageable);
+
+    @Query("select r from Request r " +
+            "where r.requester.id = ?1 " +
+            "order by r.created desc")
     List<Request> findAllByRequesterIdOrderByCreatedDesc(Long userId);
+
+    @Query("select r.version as version, count(i.id) as items, coalesce(sum(i.version), 0) as itemsVersion, " +
+            "coalesce(max(i.id), 0) as lastItemId " +
+            "from Request r left join Item i on i.requestId = r.id " +
+            "where r.id = ?1 " +
+            "group by r.id, r.version")
+    Optional<RequestState> findStateById(Long requestId);
+
+    interface RequestState {
+        Long getVersion();
+
+        Long getItems();
+
+        Long getItemsVersion();
+
+        Long getLastItemId();
+    }
 }
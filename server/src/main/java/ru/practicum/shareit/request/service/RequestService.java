@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request.service;
 
 import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.util.Collection;
 
@@ -11,7 +12,11 @@ public interface RequestService {
 
     Collection<RequestDto> getAll(Long userId, int from, int size);
 
+    Collection<RequestDto> getAllBefore(Long userId, PageCursor cursor, int size);
+
     Collection<RequestDto> getRequestsOfUser(Long userId);
 
     RequestDto getById(Long userId, Long requestId);
+
+    String getVersionTag(Long userId, Long requestId);
 }
@@ -1,32 +1,50 @@
 package ru.practicum.shareit.request.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.service.BookingIntervalCache;
+import ru.practicum.shareit.exception.InvalidCursorException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.NotOwnerException;
 import ru.practicum.shareit.exception.NotSavedException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemSummaryCache;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.mapper.RequestMapper;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.EntityTag;
+import ru.practicum.shareit.util.OffsetPageRequest;
+import ru.practicum.shareit.util.PageCursor;
 
+import javax.persistence.Cache;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("shareit.service")
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 @Slf4j
 public class RequestServiceImpl implements RequestService {
     private final RequestRepository requestRepository;
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final Cache entityCache;
+    private final BookingIntervalCache bookingIntervalCache;
+    private final ItemSummaryCache itemSummaryCache;
 
     @Override
     @Transactional
@@ -40,7 +58,7 @@ public class RequestServiceImpl implements RequestService {
 
         try {
             requestRepository.save(request);
-            log.info("New request id " + request.getId() + " has been saved.");
+            log.info("New request id {} has been saved.", request.getId());
             return RequestMapper.mapToRequestDto(request);
         } catch (DataIntegrityViolationException e) {
             throw new NotSavedException("Request was not save " + requestDto);
@@ -54,8 +72,14 @@ public class RequestServiceImpl implements RequestService {
                 new NotFoundException("Request id " + requestId + " was not found."));
 
         if (request.getRequester().getId().equals(userId)) {
+            // items answering the request are deleted with it by cascade
+            request.getItems().forEach(item -> {
+                bookingIntervalCache.evict(item.getId());
+                itemSummaryCache.evict(item.getId());
+            });
             requestRepository.deleteById(requestId);
-            log.info("Existed request id " + requestId + " has been deleted.");
+            entityCache.evict(Item.class);
+            log.info("Existed request id {} has been deleted.", requestId);
         } else {
             throw new NotOwnerException("Request can by deleted by requester only.");
         }
@@ -64,40 +88,83 @@ public class RequestServiceImpl implements RequestService {
     @Override
     public Collection<RequestDto> getAll(Long userId, int from, int size) {
         Collection<Request> requests = requestRepository
-                .findAllByRequesterIdNotOrderByCreatedDesc(userId, PageRequest.of(from, size));
+                .findAllByRequesterIdNotOrderByCreatedDescIdDesc(userId, OffsetPageRequest.of(from, size));
 
-        log.info("List of all requests length " + requests.size() + " has been gotten.");
+        log.debug("List of all requests length {} has been gotten.", requests.size());
 
-        return requests.stream()
-                .map(RequestMapper::mapToRequestDto)
-                .collect(Collectors.toList());
+        return mapWithItems(requests);
+    }
+
+    @Override
+    public Collection<RequestDto> getAllBefore(Long userId, PageCursor cursor, int size) {
+        if (cursor != null && cursor.getKey() == null) {
+            throw new InvalidCursorException("Cursor of requests must contain creation time.");
+        }
+
+        Collection<Request> requests = cursor == null
+                ? requestRepository.findAllByRequesterIdNotOrderByCreatedDescIdDesc(userId, PageRequest.of(0, size))
+                : requestRepository.findAllByRequesterIdNotBefore(
+                        userId, cursor.getKey(), cursor.getId(), PageRequest.of(0, size));
+
+        log.debug("Page of requests length {} has been gotten.", requests.size());
+
+        return mapWithItems(requests);
     }
 
     @Override
     public Collection<RequestDto> getRequestsOfUser(Long userId) {
-        userRepository.findById(userId).orElseThrow(() ->
-                new NotFoundException("User id " + userId + " does not exist."));
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("User id " + userId + " does not exist.");
+        }
 
         Collection<Request> requests = requestRepository
                 .findAllByRequesterIdOrderByCreatedDesc(userId);
 
-        log.info("List of requests of user id " + userId + " length " + requests.size() + " has been gotten.");
+        log.debug("List of requests of user id {} length {} has been gotten.", userId, requests.size());
 
-        return requests.stream()
-                .map(RequestMapper::mapToRequestDto)
-                .collect(Collectors.toList());
+        return mapWithItems(requests);
     }
 
     @Override
     public RequestDto getById(Long userId, Long requestId) {
-        userRepository.findById(userId).orElseThrow(() ->
-                new NotFoundException("User id " + userId + " does not exist."));
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("User id " + userId + " does not exist.");
+        }
 
         Request request = requestRepository.findById(requestId).orElseThrow(() ->
                 new NotFoundException("Request id " + requestId + " was not found."));
 
-        log.info("Request id " + requestId + " has been gotten.");
+        log.debug("Request id {} has been gotten.", requestId);
 
         return RequestMapper.mapToRequestDto(request);
     }
+
+    @Transactional(readOnly = true)
+    @Override
+    public String getVersionTag(Long userId, Long requestId) {
+        if (!userRepository.existsById(userId)) {
+            return null;
+        }
+
+        return requestRepository.findStateById(requestId)
+                .map(state -> EntityTag.of("request", requestId, state.getVersion(),
+                        state.getItems(), state.getItemsVersion(), state.getLastItemId()))
+                .orElse(null);
+    }
+
+    private List<RequestDto> mapWithItems(Collection<Request> requests) {
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, List<Item>> itemsByRequestId = itemRepository
+                .findAllByRequestIdIn(requests.stream().map(Request::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.groupingBy(Item::getRequestId));
+
+        return requests.stream()
+                .map(request -> RequestMapper.mapToRequestDto(request,
+                        itemsByRequestId.getOrDefault(request.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
 }
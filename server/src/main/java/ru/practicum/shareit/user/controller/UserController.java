@@ -1,12 +1,22 @@
 package ru.practicum.shareit.user.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.Collection;
 
 @RestController
@@ -14,38 +24,82 @@ import java.util.Collection;
 @RequiredArgsConstructor
 @Slf4j
 public class UserController {
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public UserDto add(@RequestBody UserDto userDto) {
-        log.info("POST/addUser");
+        log.debug("POST/addUser");
         return userService.add(userDto);
     }
 
     @PatchMapping("/{id}")
     public UserDto update(@PathVariable long id, @RequestBody UserDto userDto) {
-        log.info("PATCH/updateUser");
+        log.debug("PATCH/updateUser");
         return userService.update(id, userDto);
     }
 
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable long id) {
-        log.info("DELETE/userId");
+        log.debug("DELETE/userId");
         userService.delete(id);
     }
 
+    @GetMapping(params = {"!from", "!size"})
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        log.debug("GET/stream-All-Users");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> writeUsers(out, false));
+    }
+
+    @GetMapping(params = {"!from", "!size"}, produces = APPLICATION_NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAllAsNdjson() {
+        log.debug("GET/stream-All-Users-Ndjson");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON))
+                .body(out -> writeUsers(out, true));
+    }
+
     @GetMapping
-    public Collection<UserDto> getAll() {
-        log.info("GET/get-All-Users");
-        return userService.getAll();
+    public Collection<UserDto> getAll(@RequestParam(required = false, defaultValue = "0") int from,
+                                      @RequestParam(required = false, defaultValue = "10") int size) {
+        log.debug("GET/get-All-Users");
+        return userService.getAll(from, size);
     }
 
     @GetMapping("/{id}")
-    public UserDto getById(@PathVariable long id) {
-        log.info("GET/get-User-By-Id");
+    public UserDto getById(@PathVariable long id, WebRequest request) {
+        log.debug("GET/get-User-By-Id");
+        if (request.checkNotModified(userService.getVersionTag(id))) {
+            return null;
+        }
         return userService.getById(id);
     }
 
+    private void writeUsers(OutputStream out, boolean ndjson) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(StreamUtils.nonClosing(out))) {
+            generator.setRootValueSeparator(null);
+            if (!ndjson) {
+                generator.writeStartArray();
+            }
+            userService.streamAll(user -> {
+                try {
+                    generator.writeObject(user);
+                    if (ndjson) {
+                        generator.writeRaw('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+        }
+    }
 }
@@ -1,12 +1,16 @@
 package ru.practicum.shareit.user.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.util.Objects;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @ToString
@@ -15,7 +19,8 @@ import java.util.Objects;
 public class User {
     @Id
     @Column(name = "user_id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "user_name", nullable = false)
@@ -24,6 +29,10 @@ public class User {
     @Column(nullable = false)
     private String email;
 
+    @Version
+    @Column(name = "user_version", nullable = false)
+    private Long version;
+
     @ru.practicum.shareit.util.Generated
     @Override
     public boolean equals(Object o) {
@@ -3,6 +3,7 @@ package ru.practicum.shareit.user.service;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.Collection;
+import java.util.function.Consumer;
 
 public interface UserService {
     UserDto add(UserDto userDto);
@@ -11,7 +12,11 @@ public interface UserService {
 
     void delete(Long id);
 
-    Collection<UserDto> getAll();
+    Collection<UserDto> getAll(int from, int size);
+
+    void streamAll(Consumer<UserDto> action);
 
     UserDto getById(Long id);
+
+    String getVersionTag(Long id);
 }
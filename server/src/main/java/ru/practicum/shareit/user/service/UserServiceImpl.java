@@ -1,31 +1,44 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.service.BookingIntervalCache;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.NotSavedException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemSummaryCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.EntityTag;
+import ru.practicum.shareit.util.OffsetPageRequest;
 
+import javax.persistence.Cache;
 import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed("shareit.service")
 @RequiredArgsConstructor
 @Slf4j
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final Cache entityCache;
+    private final ItemSummaryCache itemSummaryCache;
+    private final BookingIntervalCache bookingIntervalCache;
 
     @Transactional
     @Override
     public UserDto add(UserDto userDto) {
         try {
             User user = userRepository.save(UserMapper.mapToUser(userDto));
-            log.info("New user id " + user.getId() + " has been added.");
+            log.info("New user id {} has been added.", user.getId());
             return UserMapper.mapToUserDto(user);
         } catch (DataIntegrityViolationException e) {
             throw new NotSavedException("User was not save " + userDto);
@@ -38,7 +51,8 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(id).orElseThrow(() ->
                 new NotFoundException("User with id " + id + " was not found."));
 
-        if (userDto.getName() != null) {
+        if (userDto.getName() != null && !userDto.getName().equals(user.getName())) {
+            itemSummaryCache.evictUser(user.getId(), user.getName());
             user.setName(userDto.getName());
         }
 
@@ -47,7 +61,7 @@ public class UserServiceImpl implements UserService {
         }
 
         try {
-            log.info("Existed user id " + user.getId() + " has been updated.");
+            log.info("Existed user id {} has been updated.", user.getId());
             return UserMapper.mapToUserDto(userRepository.save(user));
         } catch (DataIntegrityViolationException e) {
             throw new NotSavedException("User was not save " + userDto);
@@ -57,21 +71,42 @@ public class UserServiceImpl implements UserService {
     @Transactional
     @Override
     public void delete(Long id) {
+        userRepository.findById(id).ifPresent(user -> itemSummaryCache.evictUser(user.getId(), user.getName()));
         userRepository.deleteById(id);
-        log.info("Existed user id " + id + " has been deleted.");
+        bookingIntervalCache.evictUser(id);
+        entityCache.evict(Item.class);
+        log.info("Existed user id {} has been deleted.", id);
     }
 
     @Override
-    public Collection<UserDto> getAll() {
-        log.info("List of all users has been gotten.");
-        return UserMapper.mapToUserDto(userRepository.findAll());
+    public Collection<UserDto> getAll(int from, int size) {
+        Collection<User> users = userRepository.findAllByOrderByIdAsc(OffsetPageRequest.of(from, size));
+        log.debug("List of users length {} has been gotten.", users.size());
+        return UserMapper.mapToUserDto(users);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void streamAll(Consumer<UserDto> action) {
+        try (Stream<UserDto> users = userRepository.streamAllOrderedById()) {
+            users.forEach(action);
+        }
+        log.debug("All users have been streamed.");
     }
 
     @Override
     public UserDto getById(Long id) {
         User user = userRepository.findById(id).orElseThrow(() ->
                 new NotFoundException("User id " + id + " is not found."));
-        log.info("User id " + id + " has been gotten.");
+        log.debug("User id {} has been gotten.", id);
         return UserMapper.mapToUserDto(user);
     }
+
+    @Transactional(readOnly = true)
+    @Override
+    public String getVersionTag(Long id) {
+        return userRepository.findVersionById(id)
+                .map(version -> EntityTag.of("user", id, version))
+                .orElse(null);
+    }
 }
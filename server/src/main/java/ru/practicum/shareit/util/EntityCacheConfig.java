@@ -0,0 +1,16 @@
+package ru.practicum.shareit.util;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+
+@Configuration
+public class EntityCacheConfig {
+
+    @Bean
+    public Cache entityCache(EntityManagerFactory entityManagerFactory) {
+        return entityManagerFactory.getCache();
+    }
+}
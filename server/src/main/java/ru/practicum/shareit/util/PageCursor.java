@@ -0,0 +1,61 @@
+package ru.practicum.shareit.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Opaque keyset pagination token: the sort key and id of the last row of the previous page.
+ * The key is null for listings ordered by id only.
+ */
+@Getter
+@AllArgsConstructor
+public class PageCursor {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime key;
+    private final Long id;
+
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            if (separator < 0) {
+                return new PageCursor(null, Long.parseLong(value));
+            }
+            return new PageCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor " + token);
+        }
+    }
+
+    public String encode() {
+        String value = key == null ? String.valueOf(id) : key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static <T> ResponseEntity<Collection<T>> toResponse(Collection<T> page, int size,
+                                                                 Function<T, PageCursor> cursorOf) {
+        if (page.isEmpty() || page.size() < size) {
+            return ResponseEntity.ok(page);
+        }
+        T last = new ArrayList<>(page).get(page.size() - 1);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, cursorOf.apply(last).encode())
+                .body(page);
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.util;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Opens a span around every public method of a {@code @Service}, named after its class and method.
+ * It runs outside the transaction advice so the span includes the commit.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ServiceSpanAspect {
+    private final Tracer tracer;
+
+    @Around("@within(org.springframework.stereotype.Service) && execution(public * *(..))")
+    public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+        Span span = tracer.nextSpan()
+                .name(joinPoint.getSignature().getDeclaringType().getSimpleName() + "."
+                        + joinPoint.getSignature().getName())
+                .start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.util;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread, so they can be reported per request.
+ */
+public class StatementCounter implements StatementInspector {
+    private final ThreadLocal<long[]> count = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        count.get()[0]++;
+        return sql;
+    }
+
+    public void reset() {
+        count.get()[0] = 0;
+    }
+
+    public long get() {
+        return count.get()[0];
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.tracing.FileSpanHandler;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public ServiceSpanAspect serviceSpanAspect(Tracer tracer) {
+        return new ServiceSpanAspect(tracer);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty("shareit.tracing.file")
+    public FileSpanHandler fileSpanHandler(@Value("${shareit.tracing.file}") Path file) throws IOException {
+        return new FileSpanHandler(file);
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import ru.practicum.shareit.logging.AccessLogFilter;
+
+@Configuration
+public class WebConfig {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> listEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns(
+                "/items", "/items/search",
+                "/bookings", "/bookings/owner",
+                "/requests", "/requests/all");
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty("shareit.access-log.sample-rate")
+    public FilterRegistrationBean<AccessLogFilter> accessLogFilter(
+            @Value("${shareit.access-log.sample-rate}") double sampleRate) {
+        return new FilterRegistrationBean<>(new AccessLogFilter(sampleRate));
+    }
+}
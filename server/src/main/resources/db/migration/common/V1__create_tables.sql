@@ -1,9 +1,3 @@
-DROP TABLE IF EXISTS users CASCADE;
-DROP TABLE IF EXISTS items CASCADE;
-DROP TABLE IF EXISTS bookings CASCADE;
-DROP TABLE IF EXISTS comments CASCADE;
-DROP TABLE IF EXISTS requests CASCADE;
-
 CREATE TABLE IF NOT EXISTS users (
 user_id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
 user_name VARCHAR(200) NOT NULL,
@@ -0,0 +1,13 @@
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_end ON bookings (booker_id, booking_end);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, booking_start);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, booking_status, booking_start);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, booking_status, booking_start);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id, item_id);
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
+CREATE INDEX IF NOT EXISTS idx_comments_author ON comments (author_id);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requester_created ON requests (requester_id, request_created DESC);
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (request_created DESC);
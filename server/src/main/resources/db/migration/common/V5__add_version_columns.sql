@@ -0,0 +1,7 @@
+ALTER TABLE users ADD COLUMN user_version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE requests ADD COLUMN request_version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE items ADD COLUMN item_version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE bookings ADD COLUMN booking_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,2 @@
+DROP INDEX IF EXISTS idx_requests_created;
+CREATE INDEX IF NOT EXISTS idx_requests_created_id ON requests (request_created DESC, request_id DESC);
@@ -0,0 +1,11 @@
+ALTER TABLE users ALTER COLUMN user_id DROP IDENTITY;
+ALTER TABLE requests ALTER COLUMN request_id DROP IDENTITY;
+ALTER TABLE items ALTER COLUMN item_id DROP IDENTITY;
+ALTER TABLE bookings ALTER COLUMN booking_id DROP IDENTITY;
+ALTER TABLE comments ALTER COLUMN comment_id DROP IDENTITY;
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 50 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 50 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 50 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 50 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 50 INCREMENT BY 50;
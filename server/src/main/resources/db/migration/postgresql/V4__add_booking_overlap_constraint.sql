@@ -0,0 +1,5 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings ADD CONSTRAINT excl_bookings_item_approved_overlap
+    EXCLUDE USING gist (item_id WITH =, tsrange(booking_start, booking_end) WITH &&)
+    WHERE (booking_status = 'APPROVED');
@@ -0,0 +1,17 @@
+ALTER TABLE users ALTER COLUMN user_id DROP IDENTITY IF EXISTS;
+ALTER TABLE requests ALTER COLUMN request_id DROP IDENTITY IF EXISTS;
+ALTER TABLE items ALTER COLUMN item_id DROP IDENTITY IF EXISTS;
+ALTER TABLE bookings ALTER COLUMN booking_id DROP IDENTITY IF EXISTS;
+ALTER TABLE comments ALTER COLUMN comment_id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50 OWNED BY users.user_id;
+CREATE SEQUENCE IF NOT EXISTS requests_seq INCREMENT BY 50 OWNED BY requests.request_id;
+CREATE SEQUENCE IF NOT EXISTS items_seq INCREMENT BY 50 OWNED BY items.item_id;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq INCREMENT BY 50 OWNED BY bookings.booking_id;
+CREATE SEQUENCE IF NOT EXISTS comments_seq INCREMENT BY 50 OWNED BY comments.comment_id;
+
+SELECT setval('users_seq', (SELECT COALESCE(MAX(user_id), 0) FROM users) + 50, false);
+SELECT setval('requests_seq', (SELECT COALESCE(MAX(request_id), 0) FROM requests) + 50, false);
+SELECT setval('items_seq', (SELECT COALESCE(MAX(item_id), 0) FROM items) + 50, false);
+SELECT setval('bookings_seq', (SELECT COALESCE(MAX(booking_id), 0) FROM bookings) + 50, false);
+SELECT setval('comments_seq', (SELECT COALESCE(MAX(comment_id), 0) FROM comments) + 50, false);
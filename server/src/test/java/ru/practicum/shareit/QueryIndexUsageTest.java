@@ -0,0 +1,168 @@
+package ru.practicum.shareit;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.RequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Runs the repository methods behind every list endpoint and checks the H2 plan of the SQL Hibernate actually sent.
+ */
+@DataJpaTest
+class QueryIndexUsageTest {
+    private static final String TABLE_SCAN = "tableScan";
+    private static final LocalDateTime NOW = LocalDateTime.of(2023, 1, 1, 0, 0, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private CapturedStatements statements;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private RequestRepository requestRepository;
+
+    @BeforeEach
+    void clearStatements() {
+        statements.clear();
+    }
+
+    @Test
+    void bookingsByBookerOrderedByEnd() {
+        bookingRepository.findAllByBookerIdOrderByEndDescIdDesc(1L, PageRequest.of(0, 10));
+
+        assertIndexScan();
+    }
+
+    @Test
+    void bookingsByBookerAndStartOrderedByStart() {
+        bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(1L, NOW, PageRequest.of(0, 10));
+
+        assertIndexScan();
+    }
+
+    @Test
+    void bookingsByBookerAndStatusOrderedByStart() {
+        bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(1L, BookingStatus.WAITING, PageRequest.of(0, 10));
+
+        assertIndexScan();
+    }
+
+    @Test
+    void bookingsByItemOwner() {
+        bookingRepository.findAllByItemOwnerIdOrderByEndDescIdDesc(1L, PageRequest.of(0, 10));
+
+        assertIndexScan();
+    }
+
+    @Test
+    void approvedBookingsOfItemsOverlappingBatch() {
+        bookingRepository.findAllByItemIdInOverlapping(List.of(1L), BookingStatus.APPROVED, NOW, NOW.plusDays(1));
+
+        assertIndexScan();
+    }
+
+    @Test
+    void lastAndNextBookingOfItem() {
+        bookingRepository.findLastAndNextByItemIdIn(List.of(1L), BookingStatus.APPROVED, NOW);
+
+        assertIndexScan();
+    }
+
+    @Test
+    void itemsByOwner() {
+        itemRepository.findAllByOwnerIdOrderByIdAsc(1L, PageRequest.of(0, 10));
+
+        assertIndexScan();
+    }
+
+    @Test
+    void itemsByRequest() {
+        itemRepository.findAllByRequestIdIn(List.of(1L));
+
+        assertIndexScan();
+    }
+
+    @Test
+    void commentsByItem() {
+        commentRepository.findAllByItemIdIn(List.of(1L));
+
+        assertIndexScan();
+    }
+
+    @Test
+    void requestsByRequesterOrderedByCreated() {
+        requestRepository.findAllByRequesterIdOrderByCreatedDesc(1L);
+
+        assertIndexScan();
+    }
+
+    @Test
+    void requestsOfOtherUsersOrderedByCreated() {
+        requestRepository.findAllByRequesterIdNotOrderByCreatedDescIdDesc(1L, PageRequest.of(0, 10));
+
+        assertIndexScan();
+    }
+
+    private void assertIndexScan() {
+        Assertions.assertFalse(statements.get().isEmpty());
+        for (String sql : statements.get()) {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+
+            Assertions.assertNotNull(plan);
+            Assertions.assertFalse(plan.contains(TABLE_SCAN), plan);
+        }
+    }
+
+    static class CapturedStatements implements StatementInspector {
+        private final List<String> sql = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            this.sql.add(sql);
+            return sql;
+        }
+
+        List<String> get() {
+            return sql;
+        }
+
+        void clear() {
+            sql.clear();
+        }
+    }
+
+    @TestConfiguration
+    static class CaptureConfig {
+        @Bean
+        CapturedStatements capturedStatements() {
+            return new CapturedStatements();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer capturedStatementsCustomizer(CapturedStatements statements) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statements);
+        }
+    }
+}
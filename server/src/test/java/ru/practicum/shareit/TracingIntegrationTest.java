@@ -0,0 +1,75 @@
+package ru.practicum.shareit;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class TracingIntegrationTest {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private Tracer tracer;
+    @Autowired
+    private InMemorySpanHandler spans;
+
+    @Test
+    void serviceAndStatementSpansJoinCurrentTrace() {
+        Span request = tracer.nextSpan().name("request").start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(request)) {
+            userService.add(new UserDto(null, "User1", "user1@yandex.ru"));
+        } finally {
+            request.end();
+        }
+
+        String traceId = request.context().traceId();
+        MutableSpan service = spans.get().stream()
+                .filter(span -> "UserServiceImpl.add".equalsIgnoreCase(span.name()))
+                .findFirst()
+                .orElseThrow();
+        Assertions.assertEquals(traceId, service.traceId());
+        Assertions.assertEquals(request.context().spanId(), service.parentId());
+        Assertions.assertTrue(spans.get().stream()
+                .filter(span -> traceId.equals(span.traceId()))
+                .map(span -> span.tag("jdbc.query"))
+                .anyMatch(query -> query != null && query.toLowerCase().startsWith("insert into users")));
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        InMemorySpanHandler inMemorySpanHandler() {
+            return new InMemorySpanHandler();
+        }
+    }
+
+    static class InMemorySpanHandler extends SpanHandler {
+        private final List<MutableSpan> spans = new CopyOnWriteArrayList<>();
+
+        @Override
+        public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+            spans.add(span);
+            return true;
+        }
+
+        List<MutableSpan> get() {
+            return spans;
+        }
+    }
+}
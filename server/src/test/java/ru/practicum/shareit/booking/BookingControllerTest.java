@@ -9,6 +9,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingIncomingDto;
 import ru.practicum.shareit.booking.dto.BookingOutgoingDto;
 import ru.practicum.shareit.booking.model.BookingRequestState;
@@ -28,6 +29,7 @@ import java.util.List;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -103,6 +105,35 @@ class BookingControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void addAll() throws Exception {
+        when(bookingService.addAll(anyList(), anyLong()))
+                .thenReturn(List.of(new BookingBatchResultDto(0, bookingOutgoingDto, null)));
+
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(bookingOutgoingDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].booking.id").value(1L));
+    }
+
+    @Test
+    void approveAll() throws Exception {
+        when(bookingService.approveAll(anyList(), anyBoolean(), anyLong()))
+                .thenReturn(List.of(new BookingBatchResultDto(0, null, "Booking with id 5 was not found.")));
+
+        mvc.perform(patch("/bookings/approve-batch")
+                        .content(mapper.writeValueAsString(List.of(5L)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", "1")
+                        .param("approved", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].error").value("Booking with id 5 was not found."));
+    }
+
     @Test
     void getById() throws Exception {
         when(bookingService.getById(anyLong(), anyLong())).thenReturn(bookingOutgoingDto);
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalCache;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NavigableSet;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalCacheTest {
+    private final User owner = new User(
+            1L,
+            "User1",
+            "user1@yandex.ru",
+            0L);
+    private final Item item = new Item(
+            1L,
+            "Item1",
+            "DescriptionItem1",
+            true,
+            owner,
+            null,
+            0L);
+    private final Booking booking = new Booking(
+            1L,
+            LocalDateTime.of(2030, 1, 1, 0, 0, 0),
+            LocalDateTime.of(2030, 1, 2, 0, 0, 0),
+            item,
+            owner,
+            BookingStatus.WAITING,
+            0L);
+    @InjectMocks
+    private BookingIntervalCache bookingIntervalCache;
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Test
+    void getIntervalsLoadsOnce() {
+        Mockito
+                .when(bookingRepository.findAllByItemIdAndStatusInAndEndIsAfter(
+                        anyLong(), anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(booking));
+
+        bookingIntervalCache.getIntervals(1L);
+        NavigableSet<BookingInterval> result = bookingIntervalCache.getIntervals(1L);
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(booking.getStart(), result.first().getStart());
+        verify(bookingRepository, times(1)).findAllByItemIdAndStatusInAndEndIsAfter(
+                anyLong(), anyCollection(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void onBookingChangedUpdatesCachedIntervals() {
+        Mockito
+                .when(bookingRepository.findAllByItemIdAndStatusInAndEndIsAfter(
+                        anyLong(), anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+
+        bookingIntervalCache.getIntervals(1L);
+        bookingIntervalCache.onBookingChanged(booking);
+
+        Assertions.assertEquals(1, bookingIntervalCache.getIntervals(1L).size());
+
+        booking.setStatus(BookingStatus.REJECTED);
+        bookingIntervalCache.onBookingChanged(booking);
+
+        Assertions.assertTrue(bookingIntervalCache.getIntervals(1L).isEmpty());
+    }
+
+    @Test
+    void getIntervalsPrunesEndedBookings() {
+        Booking ending = new Booking(
+                2L,
+                LocalDateTime.now().minusHours(1),
+                LocalDateTime.now().plusNanos(50_000_000),
+                item,
+                owner,
+                BookingStatus.APPROVED,
+                0L);
+        Mockito
+                .when(bookingRepository.findAllByItemIdAndStatusInAndEndIsAfter(
+                        anyLong(), anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(ending, booking));
+
+        Assertions.assertEquals(2, bookingIntervalCache.getIntervals(1L).size());
+        await(ending.getEnd());
+
+        NavigableSet<BookingInterval> result = bookingIntervalCache.getIntervals(1L);
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(booking.getId(), result.first().getBookingId());
+        verify(bookingRepository, times(1)).findAllByItemIdAndStatusInAndEndIsAfter(
+                anyLong(), anyCollection(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void evictUserDropsBookingsOfUser() {
+        User booker = new User(2L, "User2", "user2@yandex.ru", 0L);
+        Booking other = new Booking(
+                2L,
+                LocalDateTime.of(2030, 2, 1, 0, 0, 0),
+                LocalDateTime.of(2030, 2, 2, 0, 0, 0),
+                item,
+                booker,
+                BookingStatus.APPROVED,
+                0L);
+        Mockito
+                .when(bookingRepository.findAllByItemIdAndStatusInAndEndIsAfter(
+                        anyLong(), anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(booking, other));
+
+        bookingIntervalCache.getIntervals(1L);
+        bookingIntervalCache.evictUser(booker.getId());
+
+        NavigableSet<BookingInterval> result = bookingIntervalCache.getIntervals(1L);
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(booking.getId(), result.first().getBookingId());
+    }
+
+    private static void await(LocalDateTime time) {
+        while (!LocalDateTime.now().isAfter(time)) {
+            Thread.onSpinWait();
+        }
+    }
+}
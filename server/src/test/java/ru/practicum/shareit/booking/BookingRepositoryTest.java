@@ -1,5 +1,7 @@
 package ru.practicum.shareit.booking;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -29,35 +31,41 @@ class BookingRepositoryTest {
     private final User user = new User(
             1L,
             "User1",
-            "user1@yandex.ru");
+            "user1@yandex.ru",
+            0L);
     private final User booker = new User(
             2L,
             "User2",
-            "user2@yandex.ru");
+            "user2@yandex.ru",
+            0L);
     private final User requester = new User(
             3L,
             "User3",
-            "user3@yandex.ru");
+            "user3@yandex.ru",
+            0L);
     private final Request request = new Request(
             1L,
             "Description",
             requester,
             LocalDateTime.of(2022, 12, 1, 0, 0, 0),
-            new ArrayList<>());
+            new ArrayList<>(),
+            0L);
     private final Item item = new Item(
             1L,
             "Item1",
             "DescriptionItem1",
             true,
             user,
-            1L);
+            1L,
+            0L);
     private final Booking booking = new Booking(
             1L,
             LocalDateTime.of(2023, 1, 1, 0, 0, 0),
             LocalDateTime.of(2023, 1, 1, 1, 1, 1),
             item,
             booker,
-            BookingStatus.WAITING
+            BookingStatus.WAITING,
+            0L
     );
 
     @Autowired
@@ -83,15 +91,15 @@ class BookingRepositoryTest {
 
     @AfterEach
     void deleteAll() {
-        requestRepository.deleteAll();
         bookingRepository.deleteAll();
         itemRepository.deleteAll();
+        requestRepository.deleteAll();
         userRepository.deleteAll();
     }
 
     @Test
-    void findAllByBookerIdOrderByEndDesc() {
-        List<Booking> found = bookingRepository.findAllByBookerIdOrderByEndDesc(2L, PageRequest.of(0, 10));
+    void findAllByBookerIdOrderByEndDescIdDesc() {
+        List<Booking> found = bookingRepository.findAllByBookerIdOrderByEndDescIdDesc(2L, PageRequest.of(0, 10));
 
         Assertions.assertNotNull(found);
         Assertions.assertEquals(1, found.size());
@@ -171,4 +179,126 @@ class BookingRepositoryTest {
         Assertions.assertEquals(booking.getBooker().getName(), found.get(0).getBooker().getName());
         Assertions.assertEquals(booking.getStatus(), found.get(0).getStatus());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findLastAndNextByItemIdInWhenBookingStarted() {
+        List<BookingRepository.AdjacentBooking> found = bookingRepository.findLastAndNextByItemIdIn(
+                List.of(1L),
+                BookingStatus.WAITING,
+                LocalDateTime.of(2023, 1, 2, 0, 0, 0));
+
+        Assertions.assertEquals(1, found.size());
+        Assertions.assertEquals(1L, found.get(0).getItemId());
+        Assertions.assertEquals(1L, found.get(0).getId());
+        Assertions.assertEquals(booker.getId(), found.get(0).getBookerId());
+        Assertions.assertTrue(found.get(0).getPast());
+    }
+
+    @Test
+    void findLastAndNextByItemIdInWhenBookingNotStarted() {
+        List<BookingRepository.AdjacentBooking> found = bookingRepository.findLastAndNextByItemIdIn(
+                List.of(1L),
+                BookingStatus.WAITING,
+                LocalDateTime.of(2022, 12, 31, 0, 0, 0));
+
+        Assertions.assertEquals(1, found.size());
+        Assertions.assertEquals(1L, found.get(0).getId());
+        Assertions.assertFalse(found.get(0).getPast());
+    }
+
+    @Test
+    void findLastAndNextByItemIdInReturnsClosestBookings() {
+        bookingRepository.save(new Booking(null, LocalDateTime.of(2022, 12, 1, 0, 0, 0),
+                LocalDateTime.of(2022, 12, 2, 0, 0, 0), item, booker, BookingStatus.WAITING, null));
+        bookingRepository.save(new Booking(null, LocalDateTime.of(2023, 2, 1, 0, 0, 0),
+                LocalDateTime.of(2023, 2, 2, 0, 0, 0), item, booker, BookingStatus.WAITING, null));
+        Booking next = bookingRepository.save(new Booking(null, LocalDateTime.of(2023, 1, 10, 0, 0, 0),
+                LocalDateTime.of(2023, 1, 11, 0, 0, 0), item, booker, BookingStatus.WAITING, null));
+        bookingRepository.save(new Booking(null, LocalDateTime.of(2023, 1, 5, 0, 0, 0),
+                LocalDateTime.of(2023, 1, 6, 0, 0, 0), item, booker, BookingStatus.REJECTED, null));
+
+        List<BookingRepository.AdjacentBooking> found = bookingRepository.findLastAndNextByItemIdIn(
+                List.of(1L),
+                BookingStatus.WAITING,
+                LocalDateTime.of(2023, 1, 2, 0, 0, 0));
+
+        Assertions.assertEquals(2, found.size());
+        BookingRepository.AdjacentBooking last = found.get(0).getPast() ? found.get(0) : found.get(1);
+        BookingRepository.AdjacentBooking nextFound = found.get(0).getPast() ? found.get(1) : found.get(0);
+        Assertions.assertEquals(1L, last.getId());
+        Assertions.assertEquals(next.getId(), nextFound.getId());
+    }
+
+    @Test
+    void existsByItemIdAndStatusAndStartIsBeforeAndEndIsAfter() {
+        Assertions.assertTrue(bookingRepository.existsByItemIdAndStatusAndStartIsBeforeAndEndIsAfter(
+                1L,
+                BookingStatus.WAITING,
+                LocalDateTime.of(2023, 1, 1, 0, 30, 0),
+                LocalDateTime.of(2022, 12, 31, 0, 0, 0)));
+        Assertions.assertFalse(bookingRepository.existsByItemIdAndStatusAndStartIsBeforeAndEndIsAfter(
+                1L,
+                BookingStatus.WAITING,
+                LocalDateTime.of(2023, 1, 2, 0, 0, 0),
+                LocalDateTime.of(2023, 1, 1, 1, 1, 1)));
+    }
+
+    @Test
+    void findAllByBookerIdBefore() {
+        List<Booking> found = bookingRepository.findAllByBookerIdBefore(
+                2L, LocalDateTime.of(2024, 1, 1, 0, 0, 0), 100L, PageRequest.of(0, 10));
+        List<Booking> afterLast = bookingRepository.findAllByBookerIdBefore(
+                2L, booking.getEnd(), 1L, PageRequest.of(0, 10));
+
+        Assertions.assertEquals(1, found.size());
+        Assertions.assertEquals(1L, found.get(0).getId());
+        Assertions.assertTrue(afterLast.isEmpty());
+    }
+
+    @Test
+    void findAllByItemOwnerIdBefore() {
+        List<Booking> found = bookingRepository.findAllByItemOwnerIdBefore(
+                1L, LocalDateTime.of(2024, 1, 1, 0, 0, 0), 100L, PageRequest.of(0, 10));
+
+        Assertions.assertEquals(1, found.size());
+        Assertions.assertEquals(1L, found.get(0).getId());
+    }
+
+    @Test
+    void findStateByIdAndUserId() {
+        Assertions.assertTrue(bookingRepository.findStateByIdAndUserId(1L, 1L).isPresent());
+        Assertions.assertTrue(bookingRepository.findStateByIdAndUserId(1L, 2L).isPresent());
+        Assertions.assertTrue(bookingRepository.findStateByIdAndUserId(1L, 3L).isEmpty());
+
+        BookingRepository.BookingState state = bookingRepository.findStateByIdAndUserId(1L, 2L).get();
+        Assertions.assertEquals(0L, state.getVersion());
+        Assertions.assertEquals(0L, state.getItemVersion());
+        Assertions.assertEquals(0L, state.getBookerVersion());
+    }
+
+    @Test
+    void saveAllAndFlushBatchesInserts() {
+        Item savedItem = itemRepository.findAll().get(0);
+        User savedBooker = userRepository.findAll().get(1);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            bookings.add(new Booking(
+                    null,
+                    LocalDateTime.of(2023, 2, 1, 0, 0, 0).plusDays(i),
+                    LocalDateTime.of(2023, 2, 1, 12, 0, 0).plusDays(i),
+                    savedItem,
+                    savedBooker,
+                    BookingStatus.WAITING,
+                    null));
+        }
+        Statistics statistics = em.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        bookingRepository.saveAllAndFlush(bookings);
+
+        Assertions.assertEquals(20, statistics.getEntityInsertCount());
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "Inserts were not batched: " + statistics.getPrepareStatementCount() + " statements");
+    }
+}
@@ -8,13 +8,16 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingIncomingDto;
 import ru.practicum.shareit.booking.dto.BookingOutgoingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingRequestState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalCache;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.exception.BookingOverlapException;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.NotSavedException;
@@ -22,6 +25,7 @@ import ru.practicum.shareit.exception.NotSupportedStatusException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemSummaryCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -30,12 +34,15 @@ import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -44,11 +51,13 @@ class BookingServiceImplTest {
     private final User owner = new User(
             1L,
             "User1",
-            "user1@yandex.ru");
+            "user1@yandex.ru",
+            0L);
     private final User booker = new User(
             2L,
             "User2",
-            "user2@yandex.ru");
+            "user2@yandex.ru",
+            0L);
     private final UserDto bookerDto = new UserDto(
             2L,
             "User2",
@@ -59,14 +68,16 @@ class BookingServiceImplTest {
             "DescriptionItem1",
             true,
             owner,
-            null);
+            null,
+            0L);
     private final Booking booking = new Booking(
             1L,
             LocalDateTime.of(2023, 1, 1, 0, 0, 0),
             LocalDateTime.of(2023, 1, 1, 1, 1, 1),
             item,
             booker,
-            BookingStatus.WAITING);
+            BookingStatus.WAITING,
+            0L);
     private final ItemDto itemDto = new ItemDto(
             1L,
             "Item1",
@@ -95,6 +106,10 @@ class BookingServiceImplTest {
     private ItemRepository itemRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private BookingIntervalCache bookingIntervalCache;
+    @Mock
+    private ItemSummaryCache itemSummaryCache;
 
     @Test
     void addValid() {
@@ -140,6 +155,26 @@ class BookingServiceImplTest {
         verify(bookingRepository, times(1)).save(any(Booking.class));
     }
 
+    @Test
+    void addWhenOverlapsApprovedBookingAndThrow() {
+        Mockito
+                .when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.of(item));
+        Mockito
+                .when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(booker));
+        Mockito
+                .when(bookingRepository.existsByItemIdAndStatusAndStartIsBeforeAndEndIsAfter(
+                        anyLong(), any(BookingStatus.class), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(true);
+
+        final BookingOverlapException ex = assertThrows(BookingOverlapException.class,
+                () -> bookingService.add(bookingIncomingDto, bookerDto.getId()));
+
+        assertThat("Item 1 is already booked for this period.", equalTo(ex.getMessage()));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
     @Test
     void addStartAfterEndAndThrow() {
         Mockito
@@ -200,7 +235,7 @@ class BookingServiceImplTest {
     @Test
     void approve() {
         Mockito
-                .when(bookingRepository.save(any(Booking.class)))
+                .when(bookingRepository.saveAndFlush(any(Booking.class)))
                 .thenReturn(booking);
         Mockito
                 .when(bookingRepository.findById(anyLong()))
@@ -216,7 +251,155 @@ class BookingServiceImplTest {
         Assertions.assertEquals(bookingOutgoingDto.getBooker().getId(), result.getBooker().getId());
         Assertions.assertEquals(BookingStatus.APPROVED, result.getStatus());
 
-        verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(bookingRepository, times(1)).saveAndFlush(any(Booking.class));
+    }
+
+    @Test
+    void addAll() {
+        BookingIncomingDto unknownItem = new BookingIncomingDto(
+                null,
+                LocalDateTime.of(2023, 1, 1, 0, 0, 0),
+                LocalDateTime.of(2023, 1, 1, 1, 1, 1),
+                99L,
+                bookerDto,
+                null);
+        Mockito
+                .when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(booker));
+        Mockito
+                .when(itemRepository.findAllById(anyCollection()))
+                .thenReturn(List.of(item));
+
+        List<BookingBatchResultDto> result = bookingService.addAll(List.of(bookingIncomingDto, unknownItem), 2L);
+
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertEquals(BookingStatus.WAITING, result.get(0).getBooking().getStatus());
+        Assertions.assertNull(result.get(0).getError());
+        Assertions.assertNull(result.get(1).getBooking());
+        Assertions.assertEquals("Item with id 99 was not found.", result.get(1).getError());
+
+        verify(bookingRepository, times(1)).saveAllAndFlush(anyCollection());
+    }
+
+    @Test
+    void addAllRejectsOnlyOverlapsWithApprovedBookings() {
+        Booking approved = new Booking(
+                3L,
+                LocalDateTime.of(2023, 1, 2, 0, 0, 0),
+                LocalDateTime.of(2023, 1, 2, 2, 0, 0),
+                item,
+                owner,
+                BookingStatus.APPROVED,
+                0L);
+        BookingIncomingDto overlappingBatch = new BookingIncomingDto(
+                null,
+                LocalDateTime.of(2023, 1, 1, 0, 30, 0),
+                LocalDateTime.of(2023, 1, 1, 2, 0, 0),
+                1L,
+                bookerDto,
+                null);
+        BookingIncomingDto overlappingApproved = new BookingIncomingDto(
+                null,
+                LocalDateTime.of(2023, 1, 2, 1, 0, 0),
+                LocalDateTime.of(2023, 1, 2, 3, 0, 0),
+                1L,
+                bookerDto,
+                null);
+        Mockito
+                .when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(booker));
+        Mockito
+                .when(itemRepository.findAllById(anyCollection()))
+                .thenReturn(List.of(item));
+        Mockito
+                .when(bookingRepository.findAllByItemIdInOverlapping(anyCollection(), any(BookingStatus.class),
+                        any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(approved));
+
+        List<BookingBatchResultDto> result = bookingService.addAll(
+                List.of(bookingIncomingDto, overlappingBatch, overlappingApproved), 2L);
+
+        Assertions.assertEquals(BookingStatus.WAITING, result.get(0).getBooking().getStatus());
+        Assertions.assertEquals(BookingStatus.WAITING, result.get(1).getBooking().getStatus());
+        Assertions.assertNull(result.get(1).getError());
+        Assertions.assertEquals("Item 1 is already booked for this period.", result.get(2).getError());
+
+        verify(bookingRepository, times(1)).findAllByItemIdInOverlapping(Set.of(1L), BookingStatus.APPROVED,
+                bookingIncomingDto.getStart(), overlappingApproved.getEnd());
+        verify(bookingRepository, never()).existsByItemIdAndStatusAndStartIsBeforeAndEndIsAfter(
+                anyLong(), any(BookingStatus.class), any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void approveAll() {
+        Mockito
+                .when(bookingRepository.findAllByIdIn(anyCollection()))
+                .thenReturn(List.of(booking));
+
+        List<BookingBatchResultDto> result = bookingService.approveAll(List.of(1L, 1L, 5L), true, 1L);
+
+        Assertions.assertEquals(3, result.size());
+        Assertions.assertEquals(BookingStatus.APPROVED, result.get(0).getBooking().getStatus());
+        Assertions.assertEquals("Booking id 1 is repeated in the batch.", result.get(1).getError());
+        Assertions.assertEquals("Booking with id 5 was not found.", result.get(2).getError());
+
+        verify(bookingRepository, times(1)).saveAllAndFlush(anyCollection());
+        verify(bookingIntervalCache, times(1)).onBookingChanged(booking);
+        verify(itemSummaryCache, times(1)).onBookingChanged(booking);
+    }
+
+    @Test
+    void approveAllWhenBookingsOverlapEachOther() {
+        Booking overlapping = new Booking(
+                2L,
+                LocalDateTime.of(2023, 1, 1, 0, 30, 0),
+                LocalDateTime.of(2023, 1, 1, 2, 0, 0),
+                item,
+                booker,
+                BookingStatus.WAITING,
+                0L);
+        Mockito
+                .when(bookingRepository.findAllByIdIn(anyCollection()))
+                .thenReturn(List.of(booking, overlapping));
+
+        List<BookingBatchResultDto> result = bookingService.approveAll(List.of(1L, 2L), true, 1L);
+
+        Assertions.assertEquals(BookingStatus.APPROVED, result.get(0).getBooking().getStatus());
+        Assertions.assertEquals("Item 1 is already booked for this period.", result.get(1).getError());
+        Assertions.assertEquals(BookingStatus.WAITING, overlapping.getStatus());
+    }
+
+    @Test
+    void approveWhenOverlapsApprovedBookingAndThrow() {
+        Mockito
+                .when(bookingRepository.findById(anyLong()))
+                .thenReturn(Optional.of(booking));
+        Mockito
+                .when(bookingRepository.existsByItemIdAndStatusAndStartIsBeforeAndEndIsAfter(
+                        anyLong(), any(BookingStatus.class), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(true);
+
+        final BookingOverlapException ex = assertThrows(BookingOverlapException.class,
+                () -> bookingService.approve(1L, true, 1L));
+
+        assertThat("Item 1 is already booked for this period.", equalTo(ex.getMessage()));
+        verify(bookingRepository, never()).saveAndFlush(any(Booking.class));
+    }
+
+    @Test
+    void approveWhenConstraintRejectsOverlapAndThrow() {
+        Mockito
+                .when(bookingRepository.findById(anyLong()))
+                .thenReturn(Optional.of(booking));
+        Mockito
+                .when(bookingRepository.saveAndFlush(any(Booking.class)))
+                .thenThrow(new DataIntegrityViolationException(
+                        "conflicting key value violates exclusion constraint \"excl_bookings_item_approved_overlap\""));
+
+        final BookingOverlapException ex = assertThrows(BookingOverlapException.class,
+                () -> bookingService.approve(1L, true, 1L));
+
+        assertThat("Item 1 is already booked for this period.", equalTo(ex.getMessage()));
     }
 
     @Test
@@ -235,7 +418,7 @@ class BookingServiceImplTest {
     @Test
     void approveInvalidAndThrow() {
         Mockito
-                .when(bookingRepository.save(any(Booking.class)))
+                .when(bookingRepository.saveAndFlush(any(Booking.class)))
                 .thenThrow(new DataIntegrityViolationException("Booking was not approved."));
         Mockito
                 .when(bookingRepository.findById(anyLong()))
@@ -269,10 +452,10 @@ class BookingServiceImplTest {
     @Test
     void getAllByBookerIdStatusAll() {
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(booker));
+                .when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
         Mockito
-                .when(bookingRepository.findAllByBookerIdOrderByEndDesc(anyLong(), any()))
+                .when(bookingRepository.findAllByBookerIdOrderByEndDescIdDesc(anyLong(), any()))
                 .thenReturn(List.of(booking));
 
         Collection<BookingOutgoingDto> result = bookingService.getAllByBookerId(2L, BookingRequestState.ALL, 0, 10);
@@ -283,8 +466,8 @@ class BookingServiceImplTest {
     @Test
     void getAllByBookerIdStatusCurrent() {
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(booker));
+                .when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
         Mockito
                 .when(bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartAsc(
                         anyLong(),
@@ -301,8 +484,8 @@ class BookingServiceImplTest {
     @Test
     void getAllByBookerIdStatusPast() {
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(booker));
+                .when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
         Mockito
                 .when(bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(
                         anyLong(),
@@ -318,8 +501,8 @@ class BookingServiceImplTest {
     @Test
     void getAllByBookerIdStatusFuture() {
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(booker));
+                .when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
         Mockito
                 .when(bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(
                         anyLong(),
@@ -335,8 +518,8 @@ class BookingServiceImplTest {
     @Test
     void getAllByBookerIdStatusWaiting() {
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(booker));
+                .when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
         Mockito
                 .when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(
                         anyLong(),
@@ -352,8 +535,8 @@ class BookingServiceImplTest {
     @Test
     void getAllByBookerIdStatusRejected() {
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(booker));
+                .when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
         Mockito
                 .when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(
                         anyLong(),
@@ -369,8 +552,8 @@ class BookingServiceImplTest {
     @Test
     void getAllByBookerIdStatusIncorrect() {
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(booker));
+                .when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
         Assertions.assertThrows(NotSupportedStatusException.class,
                 () -> bookingService.getAllByBookerId(2L, BookingRequestState.UNSUPPORTED_STATUS, 0, 1));
     }
@@ -378,10 +561,10 @@ class BookingServiceImplTest {
     @Test
     void getAllByItemsOfUserStatusAll() {
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(owner));
+                .when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
         Mockito
-                .when(bookingRepository.findAllByItemOwnerIdOrderByEndDesc(anyLong(), any()))
+                .when(bookingRepository.findAllByItemOwnerIdOrderByEndDescIdDesc(anyLong(), any()))
                 .thenReturn(List.of(booking));
 
         Collection<BookingOutgoingDto> result = bookingService.getAllByItemsOfUser(1L, BookingRequestState.ALL, 0, 10);
@@ -392,8 +575,8 @@ class BookingServiceImplTest {
     @Test
     void getAllByItemsOfUserStatusCurrent() {
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(owner));
+                .when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
         Mockito
                 .when(bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
                         anyLong(),
@@ -410,8 +593,8 @@ class BookingServiceImplTest {
     @Test
     void getAllByItemsOfUserStatusPast() {
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(owner));
+                .when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
         Mockito
                 .when(bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(
                         anyLong(),
@@ -427,8 +610,8 @@ class BookingServiceImplTest {
     @Test
     void getAllByItemsOfUserStatusFuture() {
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(owner));
+                .when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
         Mockito
                 .when(bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(
                         anyLong(),
@@ -444,8 +627,8 @@ class BookingServiceImplTest {
     @Test
     void getAllByItemsOfUserStatusWaiting() {
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(owner));
+                .when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
         Mockito
                 .when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(
                         anyLong(),
@@ -461,8 +644,8 @@ class BookingServiceImplTest {
     @Test
     void getAllByItemsOfUserStatusRejected() {
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(owner));
+                .when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
         Mockito
                 .when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(
                         anyLong(),
@@ -478,9 +661,18 @@ class BookingServiceImplTest {
     @Test
     void getAllByItemsOfUserStatusIncorrect() {
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(owner));
+                .when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
         Assertions.assertThrows(NotSupportedStatusException.class,
                 () -> bookingService.getAllByItemsOfUser(1L, BookingRequestState.UNSUPPORTED_STATUS, 0, 1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getVersionTagWhenBookingNotAccessible() {
+        Mockito
+                .when(bookingRepository.findStateByIdAndUserId(1L, 3L))
+                .thenReturn(Optional.empty());
+
+        Assertions.assertNull(bookingService.getVersionTag(1L, 3L));
+    }
+}
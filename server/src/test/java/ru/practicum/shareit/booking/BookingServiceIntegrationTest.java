@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingIncomingDto;
 import ru.practicum.shareit.booking.dto.BookingOutgoingDto;
 import ru.practicum.shareit.booking.model.BookingRequestState;
@@ -38,13 +39,8 @@ class BookingServiceIntegrationTest {
             "DescriptionItem1",
             true,
             null);
-    private final BookingIncomingDto bookingIncomingDto = new BookingIncomingDto(
-            null,
-            LocalDateTime.of(2023, 1, 1, 0, 0, 0),
-            LocalDateTime.of(2023, 1, 1, 1, 1, 1),
-            1L,
-            bookerDto,
-            BookingStatus.WAITING);
+    private final LocalDateTime start = LocalDateTime.of(2023, 1, 1, 0, 0, 0);
+    private final LocalDateTime end = LocalDateTime.of(2023, 1, 1, 1, 1, 1);
 
     @Autowired
     private BookingService bookingService;
@@ -55,154 +51,202 @@ class BookingServiceIntegrationTest {
 
     @Test
     void add() {
-        userService.add(owner);
-        itemService.add(itemDto, 1L);
-        userService.add(bookerDto);
+        Long ownerId = userService.add(owner).getId();
+        Long itemId = itemService.add(itemDto, ownerId).getId();
+        Long bookerId = userService.add(bookerDto).getId();
 
-        BookingOutgoingDto result = bookingService.add(bookingIncomingDto, 2L);
+        BookingOutgoingDto result = bookingService.add(booking(itemId), bookerId);
 
         Assertions.assertNotNull(result);
-        Assertions.assertEquals(1, result.getId());
-        Assertions.assertEquals(bookingIncomingDto.getStart(), result.getStart());
-        Assertions.assertEquals(bookingIncomingDto.getEnd(), result.getEnd());
-        Assertions.assertEquals(bookingIncomingDto.getItemId(), result.getItem().getId());
-        Assertions.assertEquals(2, result.getBooker().getId());
-        Assertions.assertEquals(bookingIncomingDto.getStatus(), result.getStatus());
+        Assertions.assertNotNull(result.getId());
+        Assertions.assertEquals(start, result.getStart());
+        Assertions.assertEquals(end, result.getEnd());
+        Assertions.assertEquals(itemId, result.getItem().getId());
+        Assertions.assertEquals(bookerId, result.getBooker().getId());
+        Assertions.assertEquals(BookingStatus.WAITING, result.getStatus());
     }
 
     @Test
     void approve() {
-        userService.add(owner);
-        itemService.add(itemDto, 1L);
-        userService.add(bookerDto);
-        bookingService.add(bookingIncomingDto, 2L);
+        Long ownerId = userService.add(owner).getId();
+        Long itemId = itemService.add(itemDto, ownerId).getId();
+        Long bookerId = userService.add(bookerDto).getId();
+        Long bookingId = bookingService.add(booking(itemId), bookerId).getId();
 
-        BookingOutgoingDto result = bookingService.approve(1L, true, 1L);
+        BookingOutgoingDto result = bookingService.approve(bookingId, true, ownerId);
 
         Assertions.assertNotNull(result);
-        Assertions.assertEquals(1, result.getId());
-        Assertions.assertEquals(bookingIncomingDto.getStart(), result.getStart());
-        Assertions.assertEquals(bookingIncomingDto.getEnd(), result.getEnd());
-        Assertions.assertEquals(bookingIncomingDto.getItemId(), result.getItem().getId());
-        Assertions.assertEquals(2, result.getBooker().getId());
+        Assertions.assertEquals(bookingId, result.getId());
+        Assertions.assertEquals(start, result.getStart());
+        Assertions.assertEquals(end, result.getEnd());
+        Assertions.assertEquals(itemId, result.getItem().getId());
+        Assertions.assertEquals(bookerId, result.getBooker().getId());
         Assertions.assertEquals(BookingStatus.APPROVED, result.getStatus());
     }
 
+    @Test
+    void addAllAcceptsWhatSingleAddAccepts() {
+        Long ownerId = userService.add(owner).getId();
+        Long itemId = itemService.add(itemDto, ownerId).getId();
+        Long bookerId = userService.add(bookerDto).getId();
+        bookingService.add(booking(itemId), bookerId);
+        bookingService.add(booking(itemId), bookerId);
+
+        List<BookingBatchResultDto> added = bookingService.addAll(List.of(booking(itemId), booking(itemId)), bookerId);
+
+        Assertions.assertEquals(BookingStatus.WAITING, added.get(0).getBooking().getStatus());
+        Assertions.assertEquals(BookingStatus.WAITING, added.get(1).getBooking().getStatus());
+    }
+
+    @Test
+    void addAllAndApproveAll() {
+        Long ownerId = userService.add(owner).getId();
+        Long itemId = itemService.add(itemDto, ownerId).getId();
+        Long bookerId = userService.add(bookerDto).getId();
+        BookingIncomingDto later = new BookingIncomingDto(
+                null,
+                LocalDateTime.of(2023, 1, 2, 0, 0, 0),
+                LocalDateTime.of(2023, 1, 2, 1, 0, 0),
+                itemId,
+                bookerDto,
+                null);
+
+        List<BookingBatchResultDto> added = bookingService.addAll(List.of(booking(itemId), later), bookerId);
+        List<BookingBatchResultDto> approved = bookingService.approveAll(
+                List.of(added.get(0).getBooking().getId(), added.get(1).getBooking().getId()), true, ownerId);
+
+        Assertions.assertEquals(2, approved.size());
+        Assertions.assertEquals(BookingStatus.APPROVED, approved.get(0).getBooking().getStatus());
+        Assertions.assertEquals(BookingStatus.APPROVED, approved.get(1).getBooking().getStatus());
+        Assertions.assertEquals(BookingStatus.APPROVED,
+                bookingService.getById(bookerId, added.get(0).getBooking().getId()).getStatus());
+    }
+
     @Test
     void getById() {
-        userService.add(owner);
-        itemService.add(itemDto, 1L);
-        userService.add(bookerDto);
-        bookingService.add(bookingIncomingDto, 2L);
+        Long ownerId = userService.add(owner).getId();
+        Long itemId = itemService.add(itemDto, ownerId).getId();
+        Long bookerId = userService.add(bookerDto).getId();
+        Long bookingId = bookingService.add(booking(itemId), bookerId).getId();
 
-        BookingOutgoingDto result = bookingService.getById(1L, 2L);
+        BookingOutgoingDto result = bookingService.getById(bookingId, bookerId);
 
         Assertions.assertNotNull(result);
-        Assertions.assertEquals(1, result.getId());
-        Assertions.assertEquals(bookingIncomingDto.getStart(), result.getStart());
-        Assertions.assertEquals(bookingIncomingDto.getEnd(), result.getEnd());
-        Assertions.assertEquals(bookingIncomingDto.getItemId(), result.getItem().getId());
-        Assertions.assertEquals(2, result.getBooker().getId());
-        Assertions.assertEquals(bookingIncomingDto.getStatus(), result.getStatus());
+        Assertions.assertEquals(bookingId, result.getId());
+        Assertions.assertEquals(start, result.getStart());
+        Assertions.assertEquals(end, result.getEnd());
+        Assertions.assertEquals(itemId, result.getItem().getId());
+        Assertions.assertEquals(bookerId, result.getBooker().getId());
+        Assertions.assertEquals(BookingStatus.WAITING, result.getStatus());
     }
 
     @Test
     void getAllByBookerIdStatusAll() {
-        userService.add(owner);
-        itemService.add(itemDto, 1L);
-        userService.add(bookerDto);
-        bookingService.add(bookingIncomingDto, 2L);
+        Long ownerId = userService.add(owner).getId();
+        Long itemId = itemService.add(itemDto, ownerId).getId();
+        Long bookerId = userService.add(bookerDto).getId();
+        bookingService.add(booking(itemId), bookerId);
 
         List<BookingOutgoingDto> result = (List<BookingOutgoingDto>) bookingService.getAllByBookerId(
-                2L, BookingRequestState.ALL, 0, 10);
+                bookerId, BookingRequestState.ALL, 0, 10);
 
         Assertions.assertEquals(1, result.size());
     }
 
     @Test
     void getAllByBookerIdStatusPast() {
-        userService.add(owner);
-        itemService.add(itemDto, 1L);
-        userService.add(bookerDto);
-        bookingService.add(bookingIncomingDto, 2L);
+        Long ownerId = userService.add(owner).getId();
+        Long itemId = itemService.add(itemDto, ownerId).getId();
+        Long bookerId = userService.add(bookerDto).getId();
+        bookingService.add(booking(itemId), bookerId);
 
         List<BookingOutgoingDto> result = (List<BookingOutgoingDto>) bookingService.getAllByBookerId(
-                2L, BookingRequestState.PAST, 0, 10);
+                bookerId, BookingRequestState.PAST, 0, 10);
 
         Assertions.assertEquals(1, result.size());
     }
 
     @Test
     void getAllByBookerIdStatusWaiting() {
-        userService.add(owner);
-        itemService.add(itemDto, 1L);
-        userService.add(bookerDto);
-        bookingService.add(bookingIncomingDto, 2L);
+        Long ownerId = userService.add(owner).getId();
+        Long itemId = itemService.add(itemDto, ownerId).getId();
+        Long bookerId = userService.add(bookerDto).getId();
+        bookingService.add(booking(itemId), bookerId);
 
         List<BookingOutgoingDto> result = (List<BookingOutgoingDto>) bookingService.getAllByBookerId(
-                2L, BookingRequestState.WAITING, 0, 10);
+                bookerId, BookingRequestState.WAITING, 0, 10);
 
         Assertions.assertEquals(1, result.size());
     }
 
     @Test
     void getAllByBookerIdStatusIncorrect() {
-        userService.add(owner);
-        itemService.add(itemDto, 1L);
-        userService.add(bookerDto);
-        bookingService.add(bookingIncomingDto, 2L);
+        Long ownerId = userService.add(owner).getId();
+        Long itemId = itemService.add(itemDto, ownerId).getId();
+        Long bookerId = userService.add(bookerDto).getId();
+        bookingService.add(booking(itemId), bookerId);
 
         Assertions.assertThrows(NotSupportedStatusException.class,
-                () -> bookingService.getAllByBookerId(2L, BookingRequestState.UNSUPPORTED_STATUS, 0, 1));
+                () -> bookingService.getAllByBookerId(bookerId, BookingRequestState.UNSUPPORTED_STATUS, 0, 1));
     }
 
     @Test
     void getAllByItemsOfUserStatusAll() {
-        userService.add(owner);
-        itemService.add(itemDto, 1L);
-        userService.add(bookerDto);
-        bookingService.add(bookingIncomingDto, 2L);
+        Long ownerId = userService.add(owner).getId();
+        Long itemId = itemService.add(itemDto, ownerId).getId();
+        Long bookerId = userService.add(bookerDto).getId();
+        bookingService.add(booking(itemId), bookerId);
 
         List<BookingOutgoingDto> result = (List<BookingOutgoingDto>) bookingService.getAllByItemsOfUser(
-                1L, BookingRequestState.ALL, 0, 10);
+                ownerId, BookingRequestState.ALL, 0, 10);
 
         Assertions.assertEquals(1, result.size());
     }
 
     @Test
     void getAllByItemsOfUserStatusPast() {
-        userService.add(owner);
-        itemService.add(itemDto, 1L);
-        userService.add(bookerDto);
-        bookingService.add(bookingIncomingDto, 2L);
+        Long ownerId = userService.add(owner).getId();
+        Long itemId = itemService.add(itemDto, ownerId).getId();
+        Long bookerId = userService.add(bookerDto).getId();
+        bookingService.add(booking(itemId), bookerId);
 
         List<BookingOutgoingDto> result = (List<BookingOutgoingDto>) bookingService.getAllByItemsOfUser(
-                1L, BookingRequestState.PAST, 0, 10);
+                ownerId, BookingRequestState.PAST, 0, 10);
 
         Assertions.assertEquals(1, result.size());
     }
 
     @Test
     void getAllByItemsOfUserStatusWaiting() {
-        userService.add(owner);
-        itemService.add(itemDto, 1L);
-        userService.add(bookerDto);
-        bookingService.add(bookingIncomingDto, 2L);
+        Long ownerId = userService.add(owner).getId();
+        Long itemId = itemService.add(itemDto, ownerId).getId();
+        Long bookerId = userService.add(bookerDto).getId();
+        bookingService.add(booking(itemId), bookerId);
 
         List<BookingOutgoingDto> result = (List<BookingOutgoingDto>) bookingService.getAllByItemsOfUser(
-                1L, BookingRequestState.WAITING, 0, 10);
+                ownerId, BookingRequestState.WAITING, 0, 10);
 
         Assertions.assertEquals(1, result.size());
     }
 
     @Test
     void getAllByItemsOfUserStatusIncorrect() {
-        userService.add(owner);
-        itemService.add(itemDto, 1L);
-        userService.add(bookerDto);
-        bookingService.add(bookingIncomingDto, 2L);
+        Long ownerId = userService.add(owner).getId();
+        Long itemId = itemService.add(itemDto, ownerId).getId();
+        Long bookerId = userService.add(bookerDto).getId();
+        bookingService.add(booking(itemId), bookerId);
 
         Assertions.assertThrows(NotSupportedStatusException.class,
-                () -> bookingService.getAllByItemsOfUser(1L, BookingRequestState.UNSUPPORTED_STATUS, 0, 1));
+                () -> bookingService.getAllByItemsOfUser(ownerId, BookingRequestState.UNSUPPORTED_STATUS, 0, 1));
+    }
+
+    private BookingIncomingDto booking(Long itemId) {
+        return new BookingIncomingDto(
+                null,
+                start,
+                end,
+                itemId,
+                bookerDto,
+                BookingStatus.WAITING);
     }
-}
\ No newline at end of file
+}
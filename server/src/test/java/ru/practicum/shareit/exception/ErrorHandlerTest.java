@@ -7,9 +7,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.model.Item;
 
 import java.nio.charset.StandardCharsets;
 
@@ -85,4 +87,22 @@ public class ErrorHandlerTest {
         exceptionsHandler.handleNotSavedException(new NotSavedException());
         assertEquals(1, 1);
     }
-}
\ No newline at end of file
+
+    @Test
+    void bookingOverlapException() {
+        ErrorHandler exceptionsHandler = new ErrorHandler();
+
+        ErrorResponse response = exceptionsHandler.handleBookingOverlapException(
+                new BookingOverlapException("Item 1 is already booked for this period."));
+        assertEquals("Item 1 is already booked for this period.", response.getError());
+    }
+
+    @Test
+    void optimisticLockingFailureException() {
+        ErrorHandler exceptionsHandler = new ErrorHandler();
+
+        ErrorResponse response = exceptionsHandler.handleOptimisticLockingFailureException(
+                new ObjectOptimisticLockingFailureException(Item.class, 1L));
+        assertEquals("Entity was modified concurrently, reload it and retry.", response.getError());
+    }
+}
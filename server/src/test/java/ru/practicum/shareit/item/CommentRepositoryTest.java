@@ -28,14 +28,16 @@ class CommentRepositoryTest {
     private final User user = new User(
             1L,
             "User1",
-            "user1@yandex.ru");
+            "user1@yandex.ru",
+            0L);
     private final Item item = new Item(
             1L,
             "Item1",
             "DescriptionItem1",
             true,
             user,
-            1L);
+            1L,
+            0L);
     private final Comment comment = new Comment(
             1L,
             "Text",
@@ -48,7 +50,8 @@ class CommentRepositoryTest {
             "Description",
             user,
             LocalDateTime.of(2023, 1, 1, 0, 0, 0),
-            new ArrayList<>());
+            new ArrayList<>(),
+            0L);
     @Autowired
     private TestEntityManager em;
     @Autowired
@@ -87,4 +90,14 @@ class CommentRepositoryTest {
         Assertions.assertEquals(comment.getAuthor().getName(), found.get(0).getAuthor().getName());
         Assertions.assertEquals(comment.getItem().getName(), found.get(0).getItem().getName());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllByItemIdIn() {
+        List<Comment> found = commentRepository.findAllByItemIdIn(List.of(1L, 2L));
+
+        Assertions.assertNotNull(found);
+        Assertions.assertEquals(1, found.size());
+        Assertions.assertEquals(comment.getText(), found.get(0).getText());
+        Assertions.assertEquals(comment.getAuthor().getName(), found.get(0).getAuthor().getName());
+    }
+}
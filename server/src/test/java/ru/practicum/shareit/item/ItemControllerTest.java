@@ -9,21 +9,28 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
+import ru.practicum.shareit.item.dto.ItemImportRecordDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemController.class)
@@ -78,6 +85,29 @@ class ItemControllerTest {
                 .andExpect(status().is(201));
     }
 
+    @Test
+    void importItems() throws Exception {
+        when(itemService.importItems(anyLong(), any())).thenAnswer(invocation -> {
+            Iterator<ItemImportRecordDto> records = invocation.getArgument(1);
+            long imported = 0;
+            while (records.hasNext()) {
+                records.next();
+                imported++;
+            }
+            return new ItemImportResultDto(imported, 0, new ArrayList<>());
+        });
+        String body = mapper.writeValueAsString(new ItemImportRecordDto(1, itemDto, null)) + "\n" +
+                mapper.writeValueAsString(new ItemImportRecordDto(2, itemDto, null)) + "\n";
+
+        mvc.perform(post("/items/import")
+                        .content(body)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .header("X-Sharer-User-Id", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2));
+    }
+
     @Test
     void update() throws Exception {
         when(itemService.update(anyLong(), anyLong(), any(ItemDto.class))).thenReturn(itemDto);
@@ -147,4 +177,29 @@ class ItemControllerTest {
                         .header("X-Sharer-User-Id", "1"))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAvailability() throws Exception {
+        when(itemService.getAvailability(anyLong(), any(), any())).thenReturn(List.of(new AvailabilitySlotDto(
+                LocalDateTime.of(2030, 1, 1, 0, 0), LocalDateTime.of(2030, 1, 2, 0, 0))));
+
+        mvc.perform(get("/items/{id}/availability", "1")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", "1")
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-02T00:00:00"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getAllByUserIdWithCursor() throws Exception {
+        when(itemService.getAllByUserIdAfter(anyLong(), any(), anyInt())).thenReturn(List.of(itemDtoWithBookings));
+
+        mvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", "1")
+                        .param("cursor", "")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PageCursor.NEXT_CURSOR_HEADER, new PageCursor(null, 1L).encode()));
+    }
+}
@@ -26,20 +26,23 @@ class ItemRepositoryTest {
     private final User user = new User(
             1L,
             "User1",
-            "user1@yandex.ru");
+            "user1@yandex.ru",
+            0L);
     private final Item item = new Item(
             1L,
             "Item1",
             "DescriptionItem1",
             true,
             user,
-            1L);
+            1L,
+            0L);
     private final Request request = new Request(
             1L,
             "Description",
             user,
             LocalDateTime.of(2023, 1, 1, 0, 0, 0),
-            new ArrayList<>());
+            new ArrayList<>(),
+            0L);
     @Autowired
     private TestEntityManager em;
     @Autowired
@@ -65,8 +68,8 @@ class ItemRepositoryTest {
     }
 
     @Test
-    void findAllByOwnerId() {
-        List<Item> found = itemRepository.findAllByOwnerId(1L, PageRequest.of(0, 1));
+    void findAllByOwnerIdOrderByIdAsc() {
+        List<Item> found = itemRepository.findAllByOwnerIdOrderByIdAsc(1L, PageRequest.of(0, 1));
 
         Assertions.assertNotNull(found);
         Assertions.assertEquals(1, found.size());
@@ -93,4 +96,34 @@ class ItemRepositoryTest {
         Assertions.assertEquals(user.getName(), found.get(0).getOwner().getName());
         Assertions.assertEquals(user.getEmail(), found.get(0).getOwner().getEmail());
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchOrdersNameMatchesFirst() {
+        itemRepository.save(new Item(2L, "Description set", "Spare parts", true, user, null, 0L));
+
+        List<Item> found = itemRepository.search("description", PageRequest.of(0, 10));
+
+        Assertions.assertEquals(2, found.size());
+        Assertions.assertEquals("Description set", found.get(0).getName());
+        Assertions.assertEquals(item.getName(), found.get(1).getName());
+    }
+
+    @Test
+    void findAllByOwnerIdAndIdGreaterThanOrderByIdAsc() {
+        List<Item> found = itemRepository.findAllByOwnerIdAndIdGreaterThanOrderByIdAsc(1L, 0L, PageRequest.of(0, 10));
+        List<Item> afterLast = itemRepository.findAllByOwnerIdAndIdGreaterThanOrderByIdAsc(
+                1L, found.get(0).getId(), PageRequest.of(0, 10));
+
+        Assertions.assertEquals(1, found.size());
+        Assertions.assertTrue(afterLast.isEmpty());
+    }
+
+    @Test
+    void findAllByRequestIdIn() {
+        List<Item> found = itemRepository.findAllByRequestIdIn(List.of(item.getRequestId(), 99L));
+
+        Assertions.assertEquals(1, found.size());
+        Assertions.assertEquals(item.getName(), found.get(0).getName());
+        Assertions.assertEquals(item.getRequestId(), found.get(0).getRequestId());
+    }
+}
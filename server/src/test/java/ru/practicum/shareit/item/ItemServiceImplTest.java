@@ -3,28 +3,41 @@ package ru.practicum.shareit.item;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingInterval;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalCache;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.NotOwnerException;
 import ru.practicum.shareit.exception.NotSavedException;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
+import ru.practicum.shareit.item.dto.ItemImportRecordDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
+import ru.practicum.shareit.item.model.ItemSummaryBooking;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.service.ItemSummaryCache;
+import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -32,7 +45,11 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -44,7 +61,8 @@ class ItemServiceImplTest {
     private final User user = new User(
             1L,
             "User1",
-            "user1@yandex.ru");
+            "user1@yandex.ru",
+            0L);
     private final UserDto userDto = new UserDto(
             1L,
             "User1",
@@ -55,7 +73,8 @@ class ItemServiceImplTest {
             "DescriptionItem1",
             true,
             user,
-            null);
+            null,
+            0L);
     private final Comment comment = new Comment(
             1L,
             "Text",
@@ -68,7 +87,8 @@ class ItemServiceImplTest {
             LocalDateTime.of(2023, 1, 1, 1, 1, 1),
             item,
             user,
-            BookingStatus.APPROVED);
+            BookingStatus.APPROVED,
+            0L);
     private final ItemDtoWithBookings itemDtoWithBookings = new ItemDtoWithBookings(
             1L,
             "Item1",
@@ -89,6 +109,11 @@ class ItemServiceImplTest {
             "Text",
             "User1",
             LocalDateTime.of(2023, 1, 1, 1, 1, 1));
+    private final ItemSummary summary = new ItemSummary(
+            new ItemSummaryBooking(1L, 1L, LocalDateTime.of(2023, 1, 1, 0, 0, 0)),
+            null,
+            List.of(commentDto),
+            "1");
 
     @InjectMocks
     private ItemServiceImpl itemService;
@@ -100,6 +125,14 @@ class ItemServiceImplTest {
     private CommentRepository commentRepository;
     @Mock
     private BookingRepository bookingRepository;
+    @Mock
+    private BookingIntervalCache bookingIntervalCache;
+    @Mock
+    private ItemSummaryCache itemSummaryCache;
+    @Mock
+    private RequestRepository requestRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
 
     @Test
     void addValid() {
@@ -151,6 +184,101 @@ class ItemServiceImplTest {
         assertThat("User id 1 was not found.", equalTo(ex.getMessage()));
     }
 
+    @Test
+    void importItems() {
+        ItemDto itemDtoWithRequest = new ItemDto(null, "Item2", "DescriptionItem2", true, 5L);
+        List<ItemImportRecordDto> records = List.of(
+                new ItemImportRecordDto(1, itemDto, null),
+                new ItemImportRecordDto(2, null, "name must not be blank"),
+                new ItemImportRecordDto(3, itemDtoWithRequest, null));
+        Mockito
+                .when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        Mockito
+                .when(requestRepository.findAllById(Set.of(5L)))
+                .thenReturn(List.of());
+        runTransactionCallbacks();
+        Mockito
+                .when(itemRepository.saveAllAndFlush(anyList()))
+                .thenReturn(List.of(item));
+
+        ItemImportResultDto result = itemService.importItems(user.getId(), records.iterator());
+
+        Assertions.assertEquals(1, result.getImported());
+        Assertions.assertEquals(2, result.getFailed());
+        Assertions.assertEquals(2, result.getErrors().size());
+        Assertions.assertEquals(2, result.getErrors().get(0).getLine());
+        Assertions.assertEquals("name must not be blank", result.getErrors().get(0).getError());
+        Assertions.assertEquals(3, result.getErrors().get(1).getLine());
+        Assertions.assertEquals("Request id 5 was not found.", result.getErrors().get(1).getError());
+        verify(itemRepository, times(1)).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    void importItemsWhenChunkNotSaved() {
+        Mockito
+                .when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        runTransactionCallbacks();
+        Mockito
+                .when(itemRepository.saveAllAndFlush(anyList()))
+                .thenThrow(new DataIntegrityViolationException("Item was not saved."));
+        Mockito
+                .when(itemRepository.saveAndFlush(any(Item.class)))
+                .thenReturn(item)
+                .thenThrow(new DataIntegrityViolationException("Item was not saved."));
+
+        ItemImportResultDto result = itemService.importItems(user.getId(), List.of(
+                new ItemImportRecordDto(1, itemDto, null),
+                new ItemImportRecordDto(2, itemDto, null)).iterator());
+
+        Assertions.assertEquals(1, result.getImported());
+        Assertions.assertEquals(1, result.getFailed());
+        Assertions.assertEquals(2, result.getErrors().get(0).getLine());
+        Assertions.assertEquals("Item was not saved.", result.getErrors().get(0).getError());
+        verify(itemRepository, times(2)).saveAndFlush(any(Item.class));
+    }
+
+    @Test
+    void importItemsIgnoresIdOfLine() {
+        Mockito
+                .when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        runTransactionCallbacks();
+        Mockito
+                .when(itemRepository.saveAllAndFlush(anyList()))
+                .thenThrow(new InvalidDataAccessApiUsageException("Detached entity passed to persist"));
+        Mockito
+                .when(itemRepository.saveAndFlush(any(Item.class)))
+                .thenReturn(item)
+                .thenThrow(new InvalidDataAccessApiUsageException("Detached entity passed to persist"));
+
+        ItemImportResultDto result = itemService.importItems(user.getId(), List.of(
+                new ItemImportRecordDto(1, itemDto, null),
+                new ItemImportRecordDto(2, itemDto, null)).iterator());
+
+        ArgumentCaptor<Item> saved = ArgumentCaptor.forClass(Item.class);
+        verify(itemRepository, times(2)).saveAndFlush(saved.capture());
+        Assertions.assertTrue(saved.getAllValues().stream().allMatch(savedItem -> savedItem.getId() == null));
+        Assertions.assertEquals(1, result.getImported());
+        Assertions.assertEquals(1, result.getFailed());
+        Assertions.assertEquals(2, result.getErrors().get(0).getLine());
+        Assertions.assertEquals("Item was not saved.", result.getErrors().get(0).getError());
+    }
+
+    @Test
+    void importItemsWhenUserNotFoundAndThrow() {
+        Mockito
+                .when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.empty());
+
+        final NotFoundException ex = assertThrows(NotFoundException.class,
+                () -> itemService.importItems(user.getId(), List.<ItemImportRecordDto>of().iterator()));
+
+        assertThat("User id 1 was not found.", equalTo(ex.getMessage()));
+        verifyNoInteractions(itemRepository);
+    }
+
     @Test
     void updateValid() {
         Item itemUpdated = new Item(
@@ -159,7 +287,8 @@ class ItemServiceImplTest {
                 "DescriptionItem1",
                 true,
                 user,
-                1L);
+                1L,
+                0L);
         ItemDto itemDtoUpdated = new ItemDto(
                 1L,
                 "Item1",
@@ -222,16 +351,17 @@ class ItemServiceImplTest {
 
         verify(itemRepository, times(1)).deleteById(anyLong());
         verifyNoMoreInteractions(itemRepository);
+        verify(itemSummaryCache, times(1)).evict(1L);
     }
 
     @Test
     void getAllByUserId() {
         Mockito
-                .when(itemRepository.findById(anyLong()))
-                .thenReturn(Optional.of(item));
-        Mockito
-                .when(itemRepository.findAllByOwnerId(anyLong(), any(Pageable.class)))
+                .when(itemRepository.findAllByOwnerIdOrderByIdAsc(anyLong(), any(Pageable.class)))
                 .thenReturn(List.of(item));
+        Mockito
+                .when(itemSummaryCache.getSummaries(anyCollection()))
+                .thenReturn(Map.of(1L, summary));
 
         List<ItemDtoWithBookings> result = new ArrayList<>(itemService.getAllByUserId(1L, 0, 10));
 
@@ -242,9 +372,26 @@ class ItemServiceImplTest {
         Assertions.assertEquals(result.get(0).getDescription(), item.getDescription());
         Assertions.assertEquals(result.get(0).getAvailable(), item.getAvailable());
         Assertions.assertEquals(result.get(0).getRequestId(), item.getRequestId());
+        Assertions.assertEquals(booking.getId(), result.get(0).getLastBooking().getId());
+        Assertions.assertNull(result.get(0).getNextBooking());
+        Assertions.assertEquals(1, result.get(0).getComments().size());
 
-        verify(itemRepository, times(1)).findAllByOwnerId(anyLong(), any(Pageable.class));
+        verify(itemRepository, times(1)).findAllByOwnerIdOrderByIdAsc(anyLong(), any(Pageable.class));
         verifyNoMoreInteractions(itemRepository);
+        verifyNoInteractions(commentRepository);
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void getAllByUserIdWhenNoItems() {
+        Mockito
+                .when(itemRepository.findAllByOwnerIdOrderByIdAsc(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        List<ItemDtoWithBookings> result = new ArrayList<>(itemService.getAllByUserId(1L, 0, 10));
+
+        Assertions.assertTrue(result.isEmpty());
+        verifyNoInteractions(commentRepository, bookingRepository);
     }
 
     @Test
@@ -280,7 +427,7 @@ class ItemServiceImplTest {
 
     @Test
     void getByOwnerIdAndItemIdWhenUserNotOwnerAndThrow() {
-        User owner = new User(22L, "name", "email@ya.ru");
+        User owner = new User(22L, "name", "email@ya.ru", 0L);
         item.setOwner(owner);
 
         Mockito
@@ -300,18 +447,8 @@ class ItemServiceImplTest {
                 .when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.of(item));
         Mockito
-                .when(bookingRepository.findFirstByItemIdAndStatusAndStartIsBeforeOrderByStartDesc(
-                        anyLong(),
-                        any(BookingStatus.APPROVED.getDeclaringClass()),
-                        any(LocalDateTime.class)))
-                .thenReturn(booking);
-
-        Mockito
-                .when(bookingRepository.findFirstByItemIdAndStatusAndStartIsAfterOrderByStartAsc(
-                        anyLong(),
-                        any(BookingStatus.APPROVED.getDeclaringClass()),
-                        any(LocalDateTime.class)))
-                .thenReturn(null);
+                .when(itemSummaryCache.getSummary(anyLong()))
+                .thenReturn(summary);
 
         ItemDtoWithBookings result = itemService.getById(1L, 1L);
 
@@ -321,21 +458,14 @@ class ItemServiceImplTest {
         Assertions.assertEquals(itemDtoWithBookings.getDescription(), result.getDescription());
         Assertions.assertTrue(result.getAvailable());
         Assertions.assertEquals(itemDto.getRequestId(), result.getRequestId());
+        Assertions.assertEquals(booking.getId(), result.getLastBooking().getId());
+        Assertions.assertEquals(booking.getBooker().getId(), result.getLastBooking().getBookerId());
+        Assertions.assertNull(result.getNextBooking());
 
         verify(itemRepository, times(1)).findById(anyLong());
         verifyNoMoreInteractions(itemRepository);
-        verify(commentRepository, times(1)).findAllByItemId(anyLong(), any());
-        verifyNoMoreInteractions(commentRepository);
-        verify(bookingRepository, times(1))
-                .findFirstByItemIdAndStatusAndStartIsBeforeOrderByStartDesc(
-                        anyLong(),
-                        any(BookingStatus.APPROVED.getDeclaringClass()),
-                        any(LocalDateTime.class));
-        verify(bookingRepository, times(1)).findFirstByItemIdAndStatusAndStartIsAfterOrderByStartAsc(
-                anyLong(),
-                any(BookingStatus.APPROVED.getDeclaringClass()),
-                any(LocalDateTime.class));
-        verifyNoMoreInteractions(bookingRepository);
+        verifyNoInteractions(commentRepository);
+        verifyNoInteractions(bookingRepository);
     }
 
     @Test
@@ -403,6 +533,7 @@ class ItemServiceImplTest {
         verifyNoMoreInteractions(bookingRepository);
         verify(commentRepository, times(1)).save(any(Comment.class));
         verifyNoMoreInteractions(commentRepository);
+        verify(itemSummaryCache, times(1)).onCommentAdded(comment);
     }
 
     @Test
@@ -477,4 +608,87 @@ class ItemServiceImplTest {
         verify(bookingRepository, times(1))
                 .findAllByBookerIdAndEndBeforeOrderByStartDesc(anyLong(), any(LocalDateTime.class), any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAvailability() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        LocalDateTime to = from.plusDays(10);
+        TreeSet<BookingInterval> intervals = new TreeSet<>(BookingIntervalCache.BY_START);
+        intervals.add(new BookingInterval(1L, 2L, from.minusDays(1), from.plusDays(1)));
+        intervals.add(new BookingInterval(2L, 2L, from.plusDays(3), from.plusDays(4)));
+        intervals.add(new BookingInterval(3L, 2L, from.plusDays(3), from.plusDays(5)));
+
+        Mockito
+                .when(itemRepository.existsById(anyLong()))
+                .thenReturn(true);
+        Mockito
+                .when(bookingIntervalCache.getIntervals(anyLong()))
+                .thenReturn(intervals);
+
+        List<AvailabilitySlotDto> result = new ArrayList<>(itemService.getAvailability(1L, from, to));
+
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertEquals(from.plusDays(1), result.get(0).getStart());
+        Assertions.assertEquals(from.plusDays(3), result.get(0).getEnd());
+        Assertions.assertEquals(from.plusDays(5), result.get(1).getStart());
+        Assertions.assertEquals(to, result.get(1).getEnd());
+    }
+
+    @Test
+    void getAvailabilityWhenItemNotFoundAndThrow() {
+        Mockito
+                .when(itemRepository.existsById(anyLong()))
+                .thenReturn(false);
+
+        final NotFoundException ex = assertThrows(NotFoundException.class,
+                () -> itemService.getAvailability(1L, null, null));
+
+        assertThat("Item with id 1 was not found.", equalTo(ex.getMessage()));
+        verifyNoInteractions(bookingIntervalCache);
+    }
+
+    @Test
+    void getAvailabilityWhenPeriodInvalidAndThrow() {
+        LocalDateTime from = LocalDateTime.now().plusDays(2);
+        Mockito
+                .when(itemRepository.existsById(anyLong()))
+                .thenReturn(true);
+
+        final NotAvailableException ex = assertThrows(NotAvailableException.class,
+                () -> itemService.getAvailability(1L, from, from.minusDays(1)));
+
+        assertThat("End of period must be after start.", equalTo(ex.getMessage()));
+    }
+
+    @Test
+    void getVersionTagFromCachedSummary() {
+        when(itemRepository.findById(1L))
+                .thenReturn(Optional.of(item));
+        when(itemSummaryCache.getSummary(1L))
+                .thenReturn(summary);
+
+        String result = itemService.getVersionTag(1L, 2L);
+
+        Assertions.assertNotNull(result);
+        Assertions.assertEquals(result, itemService.getVersionTag(1L, 2L));
+        Assertions.assertNotEquals(result, itemService.getVersionTag(1L, 1L));
+        verifyNoInteractions(bookingRepository);
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void getVersionTagWhenItemNotFound() {
+        when(itemRepository.findById(1L))
+                .thenReturn(Optional.empty());
+
+        Assertions.assertNull(itemService.getVersionTag(1L, 2L));
+        verifyNoInteractions(itemSummaryCache);
+    }
+
+    private void runTransactionCallbacks() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+}
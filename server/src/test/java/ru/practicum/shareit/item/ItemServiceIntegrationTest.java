@@ -5,10 +5,16 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingIncomingDto;
+import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
+import ru.practicum.shareit.item.dto.ItemImportRecordDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.service.RequestService;
@@ -17,6 +23,7 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -41,16 +48,10 @@ public class ItemServiceIntegrationTest {
             "DescriptionItem1",
             true,
             null);
-    private final ItemDto itemDtoWithRequest = new ItemDto(
-            1L,
-            "Item1",
-            "DescriptionItem1",
-            true,
-            1L);
     private final RequestDto requestDto = new RequestDto(
             null,
             "Description",
-            2L,
+            null,
             LocalDateTime.of(2023, 1, 1, 0, 0),
             new ArrayList<>());
 
@@ -60,13 +61,15 @@ public class ItemServiceIntegrationTest {
     private UserService userService;
     @Autowired
     private RequestService requestService;
+    @Autowired
+    private BookingService bookingService;
 
     @Test
     void addItemWithoutRequest() {
-        userService.add(owner);
-        ItemDto resultItem = itemService.add(itemDtoWithoutRequest, 1L);
+        Long ownerId = userService.add(owner).getId();
+        ItemDto resultItem = itemService.add(itemDtoWithoutRequest, ownerId);
 
-        Assertions.assertEquals(1L, resultItem.getId());
+        Assertions.assertNotNull(resultItem.getId());
         Assertions.assertEquals(itemDtoWithoutRequest.getName(), resultItem.getName());
         Assertions.assertEquals(itemDtoWithoutRequest.getDescription(), resultItem.getDescription());
         Assertions.assertEquals(itemDtoWithoutRequest.getAvailable(), resultItem.getAvailable());
@@ -74,29 +77,29 @@ public class ItemServiceIntegrationTest {
 
     @Test
     void addItemToRequest() {
-        userService.add(owner);
-        userService.add(bookerDto);
-        requestService.add(requestDto, 2L);
+        Long ownerId = userService.add(owner).getId();
+        Long requesterId = userService.add(bookerDto).getId();
+        Long requestId = requestService.add(requestDto, requesterId).getId();
+        ItemDto itemDtoWithRequest = new ItemDto(null, "Item1", "DescriptionItem1", true, requestId);
 
-        ItemDto resultItem = itemService.add(itemDtoWithRequest, 1L);
+        ItemDto resultItem = itemService.add(itemDtoWithRequest, ownerId);
 
-        Assertions.assertEquals(1L, resultItem.getRequestId());
+        Assertions.assertEquals(requestId, resultItem.getRequestId());
         Assertions.assertEquals(itemDtoWithRequest.getName(), resultItem.getName());
         Assertions.assertEquals(itemDtoWithRequest.getDescription(), resultItem.getDescription());
         Assertions.assertEquals(itemDtoWithRequest.getAvailable(), resultItem.getAvailable());
-        Assertions.assertEquals(itemDtoWithRequest.getRequestId(), resultItem.getRequestId());
     }
 
     @Test
     void update() {
-        userService.add(owner);
-        itemService.add(itemDtoWithoutRequest, 1L);
+        Long ownerId = userService.add(owner).getId();
+        Long itemId = itemService.add(itemDtoWithoutRequest, ownerId).getId();
 
-        ItemDto updateItem = new ItemDto(1L, "Update", "Description", true, null);
+        ItemDto updateItem = new ItemDto(itemId, "Update", "Description", true, null);
 
-        ItemDto resultUpdatedItem = itemService.update(1L, 1L, updateItem);
+        ItemDto resultUpdatedItem = itemService.update(ownerId, itemId, updateItem);
 
-        Assertions.assertEquals(1L, resultUpdatedItem.getId());
+        Assertions.assertEquals(itemId, resultUpdatedItem.getId());
         Assertions.assertEquals(updateItem.getName(), resultUpdatedItem.getName());
         Assertions.assertEquals(updateItem.getDescription(), resultUpdatedItem.getDescription());
         Assertions.assertEquals(updateItem.getAvailable(), resultUpdatedItem.getAvailable());
@@ -105,24 +108,23 @@ public class ItemServiceIntegrationTest {
 
     @Test
     void delete() {
-        userService.add(owner);
-        itemService.add(itemDtoWithoutRequest, 1L);
+        Long ownerId = userService.add(owner).getId();
+        Long itemId = itemService.add(itemDtoWithoutRequest, ownerId).getId();
 
-        itemService.delete(1L);
+        itemService.delete(itemId);
 
         final NotFoundException ex = assertThrows(NotFoundException.class,
-                () -> itemService.getById(1L, 1L));
+                () -> itemService.getById(ownerId, itemId));
 
-        assertThat("Item with id 1 was not found.", equalTo(ex.getMessage()));
+        assertThat("Item with id " + itemId + " was not found.", equalTo(ex.getMessage()));
     }
 
     @Test
-    @Transactional(readOnly = true)
     void getAllByUserId() {
-        userService.add(owner);
-        itemService.add(itemDtoWithoutRequest, 1L);
+        Long ownerId = userService.add(owner).getId();
+        itemService.add(itemDtoWithoutRequest, ownerId);
 
-        List<ItemDtoWithBookings> result = (List<ItemDtoWithBookings>) itemService.getAllByUserId(1L, 0, 10);
+        List<ItemDtoWithBookings> result = (List<ItemDtoWithBookings>) itemService.getAllByUserId(ownerId, 0, 10);
 
         Assertions.assertNotNull(result);
         Assertions.assertEquals(1, result.size());
@@ -133,12 +135,11 @@ public class ItemServiceIntegrationTest {
     }
 
     @Test
-    @Transactional(readOnly = true)
     void getByOwnerIdAndItemId() {
-        userService.add(owner);
-        itemService.add(itemDtoWithoutRequest, 1L);
+        Long ownerId = userService.add(owner).getId();
+        Long itemId = itemService.add(itemDtoWithoutRequest, ownerId).getId();
 
-        ItemDto result = itemService.getByOwnerIdAndItemId(1L, 1L);
+        ItemDto result = itemService.getByOwnerIdAndItemId(ownerId, itemId);
 
         Assertions.assertNotNull(result);
         Assertions.assertEquals(itemDtoWithoutRequest.getName(), result.getName());
@@ -148,12 +149,11 @@ public class ItemServiceIntegrationTest {
     }
 
     @Test
-    @Transactional(readOnly = true)
     void getById() {
-        userService.add(owner);
-        itemService.add(itemDtoWithoutRequest, 1L);
+        Long ownerId = userService.add(owner).getId();
+        Long itemId = itemService.add(itemDtoWithoutRequest, ownerId).getId();
 
-        ItemDtoWithBookings result = itemService.getById(1L, 1L);
+        ItemDtoWithBookings result = itemService.getById(ownerId, itemId);
 
         Assertions.assertNotNull(result);
         Assertions.assertEquals(itemDtoWithoutRequest.getName(), result.getName());
@@ -163,10 +163,9 @@ public class ItemServiceIntegrationTest {
     }
 
     @Test
-    @Transactional(readOnly = true)
     void search() {
-        userService.add(owner);
-        itemService.add(itemDtoWithoutRequest, 1L);
+        Long ownerId = userService.add(owner).getId();
+        itemService.add(itemDtoWithoutRequest, ownerId);
 
         List<ItemDto> result = (List<ItemDto>) itemService.search("item", 0, 10);
 
@@ -177,4 +176,62 @@ public class ItemServiceIntegrationTest {
         Assertions.assertEquals(itemDtoWithoutRequest.getAvailable(), result.get(0).getAvailable());
         Assertions.assertEquals(itemDtoWithoutRequest.getRequestId(), result.get(0).getRequestId());
     }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void getAvailabilityAfterBookerDeleted() {
+        Long ownerId = userService.add(owner).getId();
+        Long itemId = itemService.add(itemDtoWithoutRequest, ownerId).getId();
+        Long bookerId = userService.add(bookerDto).getId();
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        LocalDateTime to = from.plusDays(3);
+        bookingService.add(new BookingIncomingDto(
+                null, from.plusDays(1), from.plusDays(2), itemId, null, null), bookerId);
+
+        Assertions.assertEquals(2, itemService.getAvailability(itemId, from, to).size());
+
+        userService.delete(bookerId);
+
+        Collection<AvailabilitySlotDto> result = itemService.getAvailability(itemId, from, to);
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(from, result.iterator().next().getStart());
+        Assertions.assertEquals(to, result.iterator().next().getEnd());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void importItems() {
+        Long ownerId = userService.add(owner).getId();
+        ItemDto itemDtoWithMissingRequest = new ItemDto(null, "Item2", "DescriptionItem2", true, Long.MAX_VALUE);
+        List<ItemImportRecordDto> records = List.of(
+                new ItemImportRecordDto(1, itemDtoWithoutRequest, null),
+                new ItemImportRecordDto(2, null, "available must not be null"),
+                new ItemImportRecordDto(3, itemDtoWithMissingRequest, null));
+
+        ItemImportResultDto result = itemService.importItems(ownerId, records.iterator());
+
+        Assertions.assertEquals(1, result.getImported());
+        Assertions.assertEquals(2, result.getFailed());
+        Assertions.assertEquals(3, result.getErrors().get(1).getLine());
+        Assertions.assertEquals(1, itemService.getAllByUserId(ownerId, 0, 10).size());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void importItemsWithId() {
+        Long ownerId = userService.add(owner).getId();
+        Long existingId = itemService.add(itemDtoWithoutRequest, ownerId).getId();
+        ItemDto itemDtoWithId = new ItemDto(existingId, "Item2", "DescriptionItem2", true, null);
+        ItemDto itemDtoWithUnknownId = new ItemDto(Long.MAX_VALUE, "Item3", "DescriptionItem3", true, null);
+
+        ItemImportResultDto result = itemService.importItems(ownerId, List.of(
+                new ItemImportRecordDto(1, itemDtoWithId, null),
+                new ItemImportRecordDto(2, itemDtoWithUnknownId, null)).iterator());
+
+        Assertions.assertEquals(2, result.getImported());
+        Assertions.assertEquals(0, result.getFailed());
+        Assertions.assertEquals("Item1", itemService.getById(existingId, ownerId).getName());
+        Assertions.assertEquals(3, itemService.getAllByUserId(ownerId, 0, 10).size());
+    }
 }
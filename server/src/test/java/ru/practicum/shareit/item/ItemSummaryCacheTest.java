@@ -0,0 +1,234 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.service.ItemSummaryCache;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSummaryCacheTest {
+    private final User owner = new User(
+            1L,
+            "User1",
+            "user1@yandex.ru",
+            0L);
+    private final User booker = new User(
+            2L,
+            "User2",
+            "user2@yandex.ru",
+            0L);
+    private final Item item = new Item(
+            1L,
+            "Item1",
+            "DescriptionItem1",
+            true,
+            owner,
+            null,
+            0L);
+    private final Booking booking = new Booking(
+            1L,
+            LocalDateTime.of(2030, 1, 1, 0, 0, 0),
+            LocalDateTime.of(2030, 1, 2, 0, 0, 0),
+            item,
+            booker,
+            BookingStatus.APPROVED,
+            0L);
+    private final Comment comment = new Comment(
+            1L,
+            "Text",
+            item,
+            booker,
+            LocalDateTime.of(2023, 1, 1, 1, 1, 1));
+    @InjectMocks
+    private ItemSummaryCache itemSummaryCache;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Test
+    void getSummaryLoadsOnce() {
+        Mockito
+                .when(bookingRepository.findLastAndNextByItemIdIn(
+                        anyCollection(), any(BookingStatus.class), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        Mockito
+                .when(commentRepository.findAllByItemIdIn(anyCollection()))
+                .thenReturn(List.of(comment));
+
+        itemSummaryCache.getSummary(1L);
+        ItemSummary result = itemSummaryCache.getSummary(1L);
+
+        Assertions.assertNull(result.getLastBooking());
+        Assertions.assertNull(result.getNextBooking());
+        Assertions.assertEquals(1, result.getComments().size());
+        Assertions.assertEquals(booker.getName(), result.getComments().get(0).getAuthorName());
+        verify(bookingRepository, times(1)).findLastAndNextByItemIdIn(
+                anyCollection(), any(BookingStatus.class), any(LocalDateTime.class));
+        verify(commentRepository, times(1)).findAllByItemIdIn(anyCollection());
+    }
+
+    @Test
+    void getSummaryReloadsWhenNextBookingStarted() {
+        Mockito
+                .when(bookingRepository.findLastAndNextByItemIdIn(
+                        anyCollection(), any(BookingStatus.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(adjacentBooking(LocalDateTime.now().minusMinutes(1), false)));
+        Mockito
+                .when(commentRepository.findAllByItemIdIn(anyCollection()))
+                .thenReturn(List.of());
+
+        itemSummaryCache.getSummary(1L);
+        itemSummaryCache.getSummary(1L);
+
+        verify(bookingRepository, times(2)).findLastAndNextByItemIdIn(
+                anyCollection(), any(BookingStatus.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void onBookingChangedUpdatesCachedSummary() {
+        Mockito
+                .when(bookingRepository.findLastAndNextByItemIdIn(
+                        anyCollection(), any(BookingStatus.class), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        Mockito
+                .when(commentRepository.findAllByItemIdIn(anyCollection()))
+                .thenReturn(List.of());
+
+        itemSummaryCache.getSummary(1L);
+        itemSummaryCache.onBookingChanged(booking);
+
+        ItemSummary result = itemSummaryCache.getSummary(1L);
+
+        Assertions.assertEquals(booking.getId(), result.getNextBooking().getBookingId());
+        Assertions.assertEquals(booker.getId(), result.getNextBooking().getBookerId());
+        verify(bookingRepository, times(1)).findLastAndNextByItemIdIn(
+                anyCollection(), any(BookingStatus.class), any(LocalDateTime.class));
+
+        booking.setStatus(BookingStatus.CANCELED);
+        itemSummaryCache.onBookingChanged(booking);
+
+        Assertions.assertNull(itemSummaryCache.getSummary(1L).getNextBooking());
+        verify(bookingRepository, times(2)).findLastAndNextByItemIdIn(
+                anyCollection(), any(BookingStatus.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void onCommentAddedKeepsRecentComments() {
+        List<Comment> comments = LongStream.rangeClosed(1, ItemSummaryCache.RECENT_COMMENTS)
+                .mapToObj(id -> new Comment(id, "Text" + id, item, booker, LocalDateTime.of(2023, 1, 1, 1, 1, 1)))
+                .collect(Collectors.toList());
+        Mockito
+                .when(bookingRepository.findLastAndNextByItemIdIn(
+                        anyCollection(), any(BookingStatus.class), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        Mockito
+                .when(commentRepository.findAllByItemIdIn(anyCollection()))
+                .thenReturn(comments);
+
+        itemSummaryCache.getSummary(1L);
+        itemSummaryCache.onCommentAdded(new Comment(
+                11L, "Text11", item, booker, LocalDateTime.of(2023, 1, 2, 1, 1, 1)));
+
+        ItemSummary result = itemSummaryCache.getSummary(1L);
+
+        Assertions.assertEquals(ItemSummaryCache.RECENT_COMMENTS, result.getComments().size());
+        Assertions.assertEquals(2L, result.getComments().get(0).getId());
+        Assertions.assertEquals(11L, result.getComments().get(ItemSummaryCache.RECENT_COMMENTS - 1).getId());
+        verify(commentRepository, times(1)).findAllByItemIdIn(anyCollection());
+    }
+
+    @Test
+    void versionChangesOnlyWithSummary() {
+        Mockito
+                .when(bookingRepository.findLastAndNextByItemIdIn(
+                        anyCollection(), any(BookingStatus.class), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        Mockito
+                .when(commentRepository.findAllByItemIdIn(anyCollection()))
+                .thenReturn(List.of(comment));
+
+        String loaded = itemSummaryCache.getSummary(1L).getVersion();
+        itemSummaryCache.onCommentAdded(comment);
+
+        Assertions.assertEquals(loaded, itemSummaryCache.getSummary(1L).getVersion());
+
+        itemSummaryCache.onCommentAdded(new Comment(
+                2L, "Text2", item, booker, LocalDateTime.of(2023, 1, 2, 1, 1, 1)));
+
+        Assertions.assertNotEquals(loaded, itemSummaryCache.getSummary(1L).getVersion());
+    }
+
+    @Test
+    void evictUserDropsOnlySummariesMentioningUser() {
+        Mockito
+                .when(bookingRepository.findLastAndNextByItemIdIn(
+                        anyCollection(), any(BookingStatus.class), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        Mockito
+                .when(commentRepository.findAllByItemIdIn(anyCollection()))
+                .thenReturn(List.of(comment));
+
+        itemSummaryCache.getSummary(1L);
+        itemSummaryCache.evictUser(owner.getId(), owner.getName());
+        itemSummaryCache.getSummary(1L);
+
+        verify(commentRepository, times(1)).findAllByItemIdIn(anyCollection());
+
+        itemSummaryCache.evictUser(booker.getId(), booker.getName());
+        itemSummaryCache.getSummary(1L);
+
+        verify(commentRepository, times(2)).findAllByItemIdIn(anyCollection());
+    }
+
+    private BookingRepository.AdjacentBooking adjacentBooking(LocalDateTime start, boolean past) {
+        return new BookingRepository.AdjacentBooking() {
+            @Override
+            public Long getItemId() {
+                return item.getId();
+            }
+
+            @Override
+            public Long getId() {
+                return booking.getId();
+            }
+
+            @Override
+            public Long getBookerId() {
+                return booker.getId();
+            }
+
+            @Override
+            public LocalDateTime getBookingStart() {
+                return start;
+            }
+
+            @Override
+            public Boolean getPast() {
+                return past;
+            }
+        };
+    }
+}
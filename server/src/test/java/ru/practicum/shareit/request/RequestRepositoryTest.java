@@ -26,24 +26,28 @@ class RequestRepositoryTest {
     private final User user = new User(
             1L,
             "User1",
-            "user1@yandex.ru");
+            "user1@yandex.ru",
+            0L);
     private final User requester = new User(
             2L,
             "User2",
-            "user2@yandex.ru");
+            "user2@yandex.ru",
+            0L);
     private final Item item = new Item(
             1L,
             "Item1",
             "DescriptionItem1",
             true,
             user,
-            1L);
+            1L,
+            0L);
     private final Request request = new Request(
             1L,
             "Description",
             requester,
             LocalDateTime.of(2023, 1, 1, 0, 0, 0),
-            new ArrayList<>());
+            new ArrayList<>(),
+            0L);
 
     @Autowired
     private TestEntityManager em;
@@ -70,8 +74,8 @@ class RequestRepositoryTest {
     }
 
     @Test
-    void findAllByRequesterIdNotOrderByCreatedDesc() {
-        List<Request> found = requestRepository.findAllByRequesterIdNotOrderByCreatedDesc(1L, PageRequest.of(0, 10));
+    void findAllByRequesterIdNotOrderByCreatedDescIdDesc() {
+        List<Request> found = requestRepository.findAllByRequesterIdNotOrderByCreatedDescIdDesc(1L, PageRequest.of(0, 10));
 
         Assertions.assertNotNull(found);
         Assertions.assertEquals(1, found.size());
@@ -92,4 +96,26 @@ class RequestRepositoryTest {
         Assertions.assertEquals(request.getCreated(), found.get(0).getCreated());
         Assertions.assertEquals(request.getRequester().getName(), found.get(0).getRequester().getName());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllByRequesterIdNotBefore() {
+        List<Request> found = requestRepository.findAllByRequesterIdNotBefore(
+                1L, LocalDateTime.of(2024, 1, 1, 0, 0, 0), 100L, PageRequest.of(0, 10));
+        List<Request> afterLast = requestRepository.findAllByRequesterIdNotBefore(
+                1L, request.getCreated(), 1L, PageRequest.of(0, 10));
+
+        Assertions.assertEquals(1, found.size());
+        Assertions.assertEquals(1L, found.get(0).getId());
+        Assertions.assertTrue(afterLast.isEmpty());
+    }
+
+    @Test
+    void findStateById() {
+        RequestRepository.RequestState state = requestRepository.findStateById(1L).orElseThrow();
+
+        Assertions.assertEquals(0L, state.getVersion());
+        Assertions.assertEquals(1L, state.getItems());
+        Assertions.assertEquals(1L, state.getLastItemId());
+        Assertions.assertTrue(requestRepository.findStateById(99L).isEmpty());
+    }
+}
@@ -9,9 +9,13 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.service.BookingIntervalCache;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.NotOwnerException;
 import ru.practicum.shareit.exception.NotSavedException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemSummaryCache;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
@@ -19,6 +23,7 @@ import ru.practicum.shareit.request.service.RequestServiceImpl;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.Cache;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -28,6 +33,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -36,13 +42,15 @@ class RequestServiceImplTest {
     private final User user = new User(
             1L,
             "User1",
-            "user1@yandex.ru");
+            "user1@yandex.ru",
+            0L);
     private final Request request = new Request(
             1L,
             "Description",
             user,
             LocalDateTime.of(2023, 1, 1, 0, 0),
-            new ArrayList<>());
+            new ArrayList<>(),
+            0L);
     private final RequestDto requestDto = new RequestDto(
             1L,
             "Description",
@@ -56,6 +64,14 @@ class RequestServiceImplTest {
     private RequestRepository requestRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private Cache entityCache;
+    @Mock
+    private BookingIntervalCache bookingIntervalCache;
+    @Mock
+    private ItemSummaryCache itemSummaryCache;
 
     @Test
     void addValid() {
@@ -116,6 +132,7 @@ class RequestServiceImplTest {
 
     @Test
     void deleteByOwner() {
+        request.getItems().add(new Item(3L, "Item3", "DescriptionItem3", true, user, 1L, 0L));
         Mockito
                 .when(requestRepository.findById(anyLong()))
                 .thenReturn(Optional.of(request));
@@ -123,6 +140,9 @@ class RequestServiceImplTest {
         requestService.delete(1L, 1L);
 
         verify(requestRepository, times(1)).deleteById(anyLong());
+        verify(entityCache, times(1)).evict(Item.class);
+        verify(bookingIntervalCache, times(1)).evict(3L);
+        verify(itemSummaryCache, times(1)).evict(3L);
         verifyNoMoreInteractions(requestRepository);
     }
 
@@ -141,8 +161,11 @@ class RequestServiceImplTest {
     @Test
     void getAll() {
         Mockito
-                .when(requestRepository.findAllByRequesterIdNotOrderByCreatedDesc(anyLong(), any(Pageable.class)))
+                .when(requestRepository.findAllByRequesterIdNotOrderByCreatedDescIdDesc(anyLong(), any(Pageable.class)))
                 .thenReturn(List.of(request));
+        Mockito
+                .when(itemRepository.findAllByRequestIdIn(anyCollection()))
+                .thenReturn(new ArrayList<>());
 
         List<RequestDto> result = new ArrayList<>(requestService.getAll(user.getId(), 0, 10));
 
@@ -155,18 +178,21 @@ class RequestServiceImplTest {
         Assertions.assertEquals(requestDto.getItems(), result.get(0).getItems());
 
         verify(requestRepository, times(1))
-                .findAllByRequesterIdNotOrderByCreatedDesc(anyLong(), any(Pageable.class));
+                .findAllByRequesterIdNotOrderByCreatedDescIdDesc(anyLong(), any(Pageable.class));
         verifyNoMoreInteractions(requestRepository);
     }
 
     @Test
     void getRequestsOfUser() {
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
+                .when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
         Mockito
                 .when(requestRepository.findAllByRequesterIdOrderByCreatedDesc(anyLong()))
                 .thenReturn(List.of(request));
+        Mockito
+                .when(itemRepository.findAllByRequestIdIn(anyCollection()))
+                .thenReturn(new ArrayList<>());
 
         List<RequestDto> result = new ArrayList<>(requestService.getRequestsOfUser(user.getId()));
 
@@ -183,11 +209,34 @@ class RequestServiceImplTest {
         verifyNoMoreInteractions(requestRepository);
     }
 
+    @Test
+    void getRequestsOfUserWithItems() {
+        Item item = new Item(1L, "Item1", "DescriptionItem1", true, new User(2L, "User2", "user2@yandex.ru", 0L), 1L, 0L);
+        Mockito
+                .when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
+        Mockito
+                .when(requestRepository.findAllByRequesterIdOrderByCreatedDesc(anyLong()))
+                .thenReturn(List.of(request));
+        Mockito
+                .when(itemRepository.findAllByRequestIdIn(List.of(request.getId())))
+                .thenReturn(List.of(item));
+
+        List<RequestDto> result = new ArrayList<>(requestService.getRequestsOfUser(user.getId()));
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(1, result.get(0).getItems().size());
+        Assertions.assertEquals(item.getId(), result.get(0).getItems().get(0).getId());
+        Assertions.assertEquals(request.getId(), result.get(0).getItems().get(0).getRequestId());
+
+        verify(itemRepository, times(1)).findAllByRequestIdIn(anyCollection());
+    }
+
     @Test
     void getRequestsOfUserWhenUserNotFoundAndThrow() {
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.empty());
+                .when(userRepository.existsById(anyLong()))
+                .thenReturn(false);
 
         NotFoundException ex = assertThrows(NotFoundException.class,
                 () -> requestService.getRequestsOfUser(user.getId()));
@@ -198,8 +247,8 @@ class RequestServiceImplTest {
     @Test
     void getById() {
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
+                .when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
         Mockito
                 .when(requestRepository.findById(anyLong()))
                 .thenReturn(Optional.of(request));
@@ -218,20 +267,21 @@ class RequestServiceImplTest {
     @Test
     void getByIdWhenUserNotFoundAndThrow() {
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenThrow(new NotFoundException("User with id 1 was not found."));
+                .when(userRepository.existsById(anyLong()))
+                .thenReturn(false);
 
         NotFoundException ex = assertThrows(NotFoundException.class,
                 () -> requestService.getById(user.getId(), request.getId()));
 
-        assertThat("User with id 1 was not found.", equalTo(ex.getMessage()));
+        assertThat("User id 1 does not exist.", equalTo(ex.getMessage()));
+        verifyNoInteractions(requestRepository);
     }
 
     @Test
     void getByIdWhenRequestNotFoundAndThrow() {
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
+                .when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
         Mockito
                 .when(requestRepository.findById(anyLong()))
                 .thenThrow(new NotFoundException("Request with id 1 was not found."));
@@ -241,4 +291,14 @@ class RequestServiceImplTest {
 
         assertThat("Request with id 1 was not found.", equalTo(ex.getMessage()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getVersionTagWhenUserNotFound() {
+        Mockito
+                .when(userRepository.existsById(anyLong()))
+                .thenReturn(false);
+
+        Assertions.assertNull(requestService.getVersionTag(1L, 1L));
+        verifyNoInteractions(requestRepository);
+    }
+}
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.request;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,11 +9,14 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.service.RequestService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -31,7 +36,7 @@ public class RequestServiceIntegrationTest {
     private final RequestDto requestDto = new RequestDto(
             null,
             "Description",
-            2L,
+            null,
             LocalDateTime.of(2023, 1, 1, 0, 0),
             new ArrayList<>());
 
@@ -39,60 +44,84 @@ public class RequestServiceIntegrationTest {
     private UserService userService;
     @Autowired
     private RequestService requestService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private EntityManager em;
 
     @Test
     void add() {
-        userService.add(requester);
+        Long requesterId = userService.add(requester).getId();
 
-        RequestDto result = requestService.add(requestDto, 1L);
+        RequestDto result = requestService.add(requestDto, requesterId);
 
         Assertions.assertNotNull(result);
-        Assertions.assertEquals(1L, result.getId());
+        Assertions.assertNotNull(result.getId());
         Assertions.assertEquals(requestDto.getDescription(), result.getDescription());
-        Assertions.assertEquals(1, result.getRequesterId());
+        Assertions.assertEquals(requesterId, result.getRequesterId());
         Assertions.assertEquals(requestDto.getItems(), result.getItems());
     }
 
     @Test
     void delete() {
-        userService.add(requester);
-        requestService.add(requestDto, 1L);
-        requestService.delete(1L, 1L);
+        Long requesterId = userService.add(requester).getId();
+        Long requestId = requestService.add(requestDto, requesterId).getId();
+        requestService.delete(requesterId, requestId);
 
         final NotFoundException ex = assertThrows(NotFoundException.class,
-                () -> requestService.getById(1L, 1L));
+                () -> requestService.getById(requesterId, requestId));
 
-        assertThat("Request id 1 was not found.", equalTo(ex.getMessage()));
+        assertThat("Request id " + requestId + " was not found.", equalTo(ex.getMessage()));
     }
 
     @Test
-    @Transactional(readOnly = true)
     void getRequestsOfUser() {
-        userService.add(requester);
-        requestService.add(requestDto, 1L);
+        Long requesterId = userService.add(requester).getId();
+        Long requestId = requestService.add(requestDto, requesterId).getId();
 
-        List<RequestDto> result = (List<RequestDto>) requestService.getRequestsOfUser(1L);
+        List<RequestDto> result = (List<RequestDto>) requestService.getRequestsOfUser(requesterId);
 
         Assertions.assertNotNull(result);
         Assertions.assertEquals(1, result.size());
-        Assertions.assertEquals(1, result.get(0).getId());
+        Assertions.assertEquals(requestId, result.get(0).getId());
         Assertions.assertEquals(requestDto.getDescription(), result.get(0).getDescription());
-        Assertions.assertEquals(1, result.get(0).getRequesterId());
+        Assertions.assertEquals(requesterId, result.get(0).getRequesterId());
         Assertions.assertEquals(requestDto.getItems(), result.get(0).getItems());
     }
 
     @Test
-    @Transactional(readOnly = true)
     void getById() {
-        userService.add(requester);
-        requestService.add(requestDto, 1L);
+        Long requesterId = userService.add(requester).getId();
+        Long requestId = requestService.add(requestDto, requesterId).getId();
 
-        RequestDto result = requestService.getById(1L, 1L);
+        RequestDto result = requestService.getById(requesterId, requestId);
 
         Assertions.assertNotNull(result);
-        Assertions.assertEquals(1, result.getId());
+        Assertions.assertEquals(requestId, result.getId());
         Assertions.assertEquals(requestDto.getDescription(), result.getDescription());
-        Assertions.assertEquals(1, result.getRequesterId());
+        Assertions.assertEquals(requesterId, result.getRequesterId());
         Assertions.assertEquals(requestDto.getItems(), result.getItems());
     }
+
+    @Test
+    void getAllLoadsItemsOfPageInSingleQuery() {
+        Long requesterId = userService.add(requester).getId();
+        Long ownerId = userService.add(new UserDto(null, "User3", "user3@yandex.ru")).getId();
+        for (int i = 0; i < 5; i++) {
+            RequestDto request = requestService.add(requestDto, requesterId);
+            itemService.add(new ItemDto(null, "Item" + i, "Description", true, request.getId()), ownerId);
+            itemService.add(new ItemDto(null, "Other" + i, "Description", true, request.getId()), ownerId);
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<RequestDto> result = (List<RequestDto>) requestService.getAll(ownerId, 0, 10);
+
+        Assertions.assertEquals(5, result.size());
+        result.forEach(request -> Assertions.assertEquals(2, request.getItems().size()));
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+    }
 }
@@ -7,17 +7,23 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.user.controller.UserController;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = UserController.class)
 class UserControllerTest {
@@ -65,13 +71,48 @@ class UserControllerTest {
     void getAll() throws Exception {
         List<UserDto> users = List.of(userDto);
 
-        when(userService.getAll())
+        when(userService.getAll(anyInt(), anyInt()))
                 .thenReturn(users);
 
         mvc.perform(get("/users")
+                        .param("from", "0")
+                        .param("size", "10")
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(userDto.getId()));
+    }
+
+    @Test
+    void streamAll() throws Exception {
+        mockStreamAll();
+
+        MvcResult result = mvc.perform(get("/users")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].name").value("User2"));
+    }
+
+    @Test
+    void streamAllAsNdjson() throws Exception {
+        mockStreamAll();
+
+        MvcResult result = mvc.perform(get("/users")
+                        .accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(mapper.writeValueAsString(userDto) + "\n"
+                        + mapper.writeValueAsString(new UserDto(2L, "User2", "user2@yandex.ru")) + "\n"));
     }
 
     @Test
@@ -84,4 +125,37 @@ class UserControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getByIdReturnsEntityTag() throws Exception {
+        when(userService.getVersionTag(1L))
+                .thenReturn("\"v1\"");
+        when(userService.getById(any()))
+                .thenReturn(userDto);
+
+        mvc.perform(get("/users/{id}", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"v1\""));
+    }
+
+    @Test
+    void getByIdWhenNotModified() throws Exception {
+        when(userService.getVersionTag(1L))
+                .thenReturn("\"v1\"");
+
+        mvc.perform(get("/users/{id}", "1")
+                        .header("If-None-Match", "\"v1\""))
+                .andExpect(status().isNotModified());
+
+        verify(userService, never()).getById(any());
+    }
+
+    private void mockStreamAll() {
+        doAnswer(invocation -> {
+            Consumer<UserDto> action = invocation.getArgument(0);
+            action.accept(userDto);
+            action.accept(new UserDto(2L, "User2", "user2@yandex.ru"));
+            return null;
+        }).when(userService).streamAll(any());
+    }
+}
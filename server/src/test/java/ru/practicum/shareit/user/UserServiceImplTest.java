@@ -8,16 +8,22 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.service.BookingIntervalCache;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.NotSavedException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemSummaryCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
+import javax.persistence.Cache;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -30,7 +36,8 @@ class UserServiceImplTest {
     private final User user = new User(
             1L,
             "User1",
-            "user1@yandex.ru");
+            "user1@yandex.ru",
+            0L);
     private final UserDto userDto = new UserDto(
             1L,
             "User1",
@@ -39,6 +46,12 @@ class UserServiceImplTest {
     private UserServiceImpl userService;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private Cache entityCache;
+    @Mock
+    private ItemSummaryCache itemSummaryCache;
+    @Mock
+    private BookingIntervalCache bookingIntervalCache;
 
     @Test
     void addValid() {
@@ -75,7 +88,8 @@ class UserServiceImplTest {
         User updatedUser = new User(
                 1L,
                 "User1Updated",
-                "user1updated@yandex.ru");
+                "user1updated@yandex.ru",
+                0L);
         UserDto updatedUserDto = new UserDto(
                 1L,
                 "User1Updated",
@@ -98,6 +112,7 @@ class UserServiceImplTest {
         verify(userRepository, times(1)).save(any(User.class));
         verify(userRepository, times(1)).findById(anyLong());
         verifyNoMoreInteractions(userRepository);
+        verify(itemSummaryCache, times(1)).evictUser(1L, "User1");
     }
 
     @Test
@@ -131,19 +146,27 @@ class UserServiceImplTest {
 
     @Test
     void delete() {
+        Mockito
+                .when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+
         userService.delete(1L);
 
+        verify(userRepository, times(1)).findById(anyLong());
         verify(userRepository, times(1)).deleteById(anyLong());
+        verify(entityCache, times(1)).evict(Item.class);
+        verify(itemSummaryCache, times(1)).evictUser(user.getId(), user.getName());
+        verify(bookingIntervalCache, times(1)).evictUser(1L);
         verifyNoMoreInteractions(userRepository);
     }
 
     @Test
     void getAll() {
         Mockito
-                .when(userRepository.findAll())
+                .when(userRepository.findAllByOrderByIdAsc(any(Pageable.class)))
                 .thenReturn(List.of(user));
 
-        List<UserDto> result = new ArrayList<>(userService.getAll());
+        List<UserDto> result = new ArrayList<>(userService.getAll(0, 10));
 
         Assertions.assertNotNull(result);
         Assertions.assertEquals(1, result.size());
@@ -151,7 +174,22 @@ class UserServiceImplTest {
         Assertions.assertEquals(userDto.getName(), result.get(0).getName());
         Assertions.assertEquals(userDto.getEmail(), result.get(0).getEmail());
 
-        verify(userRepository, times(1)).findAll();
+        verify(userRepository, times(1)).findAllByOrderByIdAsc(any(Pageable.class));
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void streamAll() {
+        Mockito
+                .when(userRepository.streamAllOrderedById())
+                .thenReturn(Stream.of(userDto));
+        List<UserDto> result = new ArrayList<>();
+
+        userService.streamAll(result::add);
+
+        Assertions.assertEquals(List.of(userDto), result);
+
+        verify(userRepository, times(1)).streamAllOrderedById();
         verifyNoMoreInteractions(userRepository);
     }
 
@@ -184,4 +222,26 @@ class UserServiceImplTest {
         assertThat("User id 1 is not found.", equalTo(exception.getMessage()));
         verify(userRepository, times(1)).findById(anyLong());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getVersionTag() {
+        Mockito
+                .when(userRepository.findVersionById(anyLong()))
+                .thenReturn(Optional.of(0L));
+
+        String result = userService.getVersionTag(1L);
+
+        Assertions.assertNotNull(result);
+        Assertions.assertTrue(result.startsWith("\"") && result.endsWith("\""));
+        Assertions.assertEquals(result, userService.getVersionTag(1L));
+    }
+
+    @Test
+    void getVersionTagWhenUserNotFound() {
+        Mockito
+                .when(userRepository.findVersionById(anyLong()))
+                .thenReturn(Optional.empty());
+
+        Assertions.assertNull(userService.getVersionTag(1L));
+    }
+}
@@ -1,15 +1,20 @@
 package ru.practicum.shareit.user;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -26,66 +31,134 @@ public class UserServiceIntegrationTest {
             "user1@yandex.ru");
     @Autowired
     private UserService userService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     @Test
     void add() {
         UserDto result = userService.add(userDto);
 
         Assertions.assertNotNull(result);
-        Assertions.assertEquals(1L, result.getId());
+        Assertions.assertNotNull(result.getId());
         Assertions.assertEquals(userDto.getName(), result.getName());
         Assertions.assertEquals(userDto.getEmail(), result.getEmail());
     }
 
     @Test
     void update() {
-        userService.add(userDto);
-        UserDto userUpdated = new UserDto(1L, "Updated", "updated@ya.ru");
+        Long id = userService.add(userDto).getId();
+        UserDto userUpdated = new UserDto(id, "Updated", "updated@ya.ru");
 
-        UserDto result = userService.update(1L, userUpdated);
+        UserDto result = userService.update(id, userUpdated);
 
         Assertions.assertNotNull(result);
-        Assertions.assertEquals(1L, result.getId());
+        Assertions.assertEquals(id, result.getId());
         Assertions.assertEquals(userUpdated.getName(), result.getName());
         Assertions.assertEquals(userUpdated.getEmail(), result.getEmail());
     }
 
     @Test
     void delete() {
-        userService.add(userDto);
+        Long id = userService.add(userDto).getId();
 
-        userService.delete(1L);
+        userService.delete(id);
 
         final NotFoundException ex = assertThrows(NotFoundException.class,
-                () -> userService.getById(1L));
+                () -> userService.getById(id));
 
-        assertThat("User id 1 is not found.", equalTo(ex.getMessage()));
+        assertThat("User id " + id + " is not found.", equalTo(ex.getMessage()));
     }
 
     @Test
-    @Transactional(readOnly = true)
     void getAll() {
-        userService.add(userDto);
+        Long id = userService.add(userDto).getId();
 
-        List<UserDto> result = (List<UserDto>) userService.getAll();
+        List<UserDto> result = (List<UserDto>) userService.getAll(0, 10);
 
         Assertions.assertNotNull(result);
         Assertions.assertEquals(1, result.size());
-        Assertions.assertEquals(1, result.get(0).getId());
+        Assertions.assertEquals(id, result.get(0).getId());
         Assertions.assertEquals(userDto.getName(), result.get(0).getName());
         Assertions.assertEquals(userDto.getEmail(), result.get(0).getEmail());
     }
 
     @Test
-    @Transactional(readOnly = true)
-    void getById() {
+    void getAllPaged() {
         userService.add(userDto);
+        userService.add(new UserDto(null, "User2", "user2@yandex.ru"));
+
+        List<UserDto> result = (List<UserDto>) userService.getAll(1, 1);
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals("User2", result.get(0).getName());
+    }
+
+    @Test
+    void getAllFromOffsetNotAlignedToSize() {
+        userService.add(userDto);
+        userService.add(new UserDto(null, "User2", "user2@yandex.ru"));
+        userService.add(new UserDto(null, "User3", "user3@yandex.ru"));
+
+        List<UserDto> result = (List<UserDto>) userService.getAll(1, 2);
+
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertEquals("User2", result.get(0).getName());
+        Assertions.assertEquals("User3", result.get(1).getName());
+    }
+
+    @Test
+    void streamAll() {
+        userService.add(userDto);
+        userService.add(new UserDto(null, "User2", "user2@yandex.ru"));
+        List<UserDto> result = new ArrayList<>();
+
+        userService.streamAll(result::add);
 
-        UserDto result = userService.getById(1L);
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertEquals(userDto.getName(), result.get(0).getName());
+        Assertions.assertEquals("User2", result.get(1).getName());
+    }
+
+    @Test
+    void getById() {
+        Long id = userService.add(userDto).getId();
+
+        UserDto result = userService.getById(id);
 
         Assertions.assertNotNull(result);
-        Assertions.assertEquals(1, result.getId());
+        Assertions.assertEquals(id, result.getId());
         Assertions.assertEquals(userDto.getName(), result.getName());
         Assertions.assertEquals(userDto.getEmail(), result.getEmail());
     }
+
+    @Test
+    void getVersionTagChangesAfterUpdate() {
+        Long id = userService.add(userDto).getId();
+        String before = userService.getVersionTag(id);
+
+        userService.update(id, new UserDto(id, "Updated", null));
+
+        Assertions.assertNotNull(before);
+        Assertions.assertNotEquals(before, userService.getVersionTag(id));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void getByIdIsServedFromSecondLevelCache() {
+        Long id = userService.add(userDto).getId();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        userService.getById(id);
+        statistics.clear();
+
+        UserDto result = userService.getById(id);
+
+        Assertions.assertEquals(userDto.getName(), result.getName());
+        Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(1, statistics.getSecondLevelCacheHitCount());
+
+        userService.update(id, new UserDto(id, "Updated", null));
+
+        Assertions.assertEquals("Updated", userService.getById(id).getName());
+    }
 }
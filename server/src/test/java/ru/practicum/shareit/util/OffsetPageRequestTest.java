@@ -0,0 +1,37 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OffsetPageRequestTest {
+
+    @Test
+    void offsetIsNotAlignedToPageSize() {
+        Pageable pageable = OffsetPageRequest.of(3, 2);
+
+        Assertions.assertEquals(3, pageable.getOffset());
+        Assertions.assertEquals(2, pageable.getPageSize());
+        Assertions.assertEquals(1, pageable.getPageNumber());
+        Assertions.assertTrue(pageable.getSort().isUnsorted());
+    }
+
+    @Test
+    void nextAndPreviousMoveByPageSize() {
+        Pageable pageable = OffsetPageRequest.of(3, 2);
+
+        Assertions.assertEquals(5, pageable.next().getOffset());
+        Assertions.assertEquals(1, pageable.previousOrFirst().getOffset());
+        Assertions.assertEquals(0, pageable.first().getOffset());
+        Assertions.assertFalse(pageable.first().hasPrevious());
+        Assertions.assertEquals(OffsetPageRequest.of(4, 2), pageable.withPage(2));
+    }
+
+    @Test
+    void rejectNegativeOffsetAndEmptyPage() {
+        assertThrows(IllegalArgumentException.class, () -> OffsetPageRequest.of(-1, 2));
+        assertThrows(IllegalArgumentException.class, () -> OffsetPageRequest.of(0, 0));
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.InvalidCursorException;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageCursorTest {
+
+    @Test
+    void encodeAndDecodeWithKey() {
+        LocalDateTime key = LocalDateTime.of(2023, 1, 1, 10, 0, 0, 123000);
+        PageCursor cursor = PageCursor.decode(new PageCursor(key, 5L).encode());
+
+        Assertions.assertEquals(key, cursor.getKey());
+        Assertions.assertEquals(5L, cursor.getId());
+    }
+
+    @Test
+    void encodeAndDecodeIdOnly() {
+        PageCursor cursor = PageCursor.decode(new PageCursor(null, 7L).encode());
+
+        Assertions.assertNull(cursor.getKey());
+        Assertions.assertEquals(7L, cursor.getId());
+    }
+
+    @Test
+    void decodeBlankIsFirstPage() {
+        Assertions.assertNull(PageCursor.decode(""));
+        Assertions.assertNull(PageCursor.decode(null));
+    }
+
+    @Test
+    void decodeInvalidAndThrow() {
+        assertThrows(InvalidCursorException.class, () -> PageCursor.decode("not a cursor"));
+    }
+
+    @Test
+    void toResponseSetsNextCursorOnFullPage() {
+        ResponseEntity<Collection<Long>> full = PageCursor.toResponse(List.of(1L, 2L), 2,
+                id -> new PageCursor(null, id));
+        ResponseEntity<Collection<Long>> partial = PageCursor.toResponse(List.of(1L), 2,
+                id -> new PageCursor(null, id));
+
+        Assertions.assertEquals(new PageCursor(null, 2L).encode(),
+                full.getHeaders().getFirst(PageCursor.NEXT_CURSOR_HEADER));
+        Assertions.assertFalse(partial.getHeaders().containsKey(PageCursor.NEXT_CURSOR_HEADER));
+    }
+}
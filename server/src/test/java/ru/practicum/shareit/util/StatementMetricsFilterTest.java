@@ -0,0 +1,47 @@
+package ru.practicum.shareit.util;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+class StatementMetricsFilterTest {
+    private final StatementCounter statementCounter = new StatementCounter();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StatementMetricsFilter filter = new StatementMetricsFilter(statementCounter, meterRegistry);
+
+    @Test
+    void recordStatementsPerRequest() throws Exception {
+        statementCounter.inspect("select 1");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/1");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (servletRequest, servletResponse) -> {
+            statementCounter.inspect("select * from items");
+            statementCounter.inspect("select * from comments");
+            servletRequest.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/items/{itemId}");
+        });
+
+        DistributionSummary summary = meterRegistry.get("shareit.db.statements")
+                .tag("method", "GET")
+                .tag("uri", "/items/{itemId}")
+                .summary();
+        Assertions.assertEquals(1, summary.count());
+        Assertions.assertEquals(2, summary.totalAmount());
+    }
+
+    @Test
+    void recordUnmatchedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/unknown");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (servletRequest, servletResponse) -> {
+        });
+
+        Assertions.assertEquals(0, meterRegistry.get("shareit.db.statements")
+                .tag("uri", "UNKNOWN")
+                .summary()
+                .totalAmount());
+    }
+}